@@ -0,0 +1,232 @@
+package main;
+
+import java.util.List;
+import java.util.Locale;
+import models.BoardingResult;
+import models.Passenger;
+import models.TicketingResult;
+import models.TransitQManager;
+
+// Text command front end for a TransitQManager. One command per line, one
+// String reply per command, in the same "ERROR:/ALERT:/..." style the manager
+// already returns. Used by TransitQHeadless for scripts, stdin and the local
+// socket; it touches only the models package, so no display is needed.
+// The manager does its own locking, so one interpreter may serve many callers.
+public class CommandInterpreter {
+
+    private final TransitQManager manager;
+
+    public CommandInterpreter(TransitQManager manager) {
+        this.manager = manager;
+    }
+
+    public TransitQManager getManager() {
+        return manager;
+    }
+
+    // True if the line asks the session to end
+    public static boolean isQuit(String line) {
+        String command = line.trim().toLowerCase(Locale.ROOT);
+        return command.equals("quit") || command.equals("exit");
+    }
+
+    // Runs one command line and returns its reply ("" for blank lines and comments)
+    public String execute(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return "";
+        }
+        int space = trimmed.indexOf(' ');
+        String command = (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase(Locale.ROOT);
+        String arg = space < 0 ? "" : trimmed.substring(space + 1).trim();
+
+        try {
+            switch (command) {
+                case "help":
+                    return help();
+                case "add":
+                    return add(arg);
+                case "predefined":
+                    return manager.addPredefinedPassengers(intArg(arg, 1));
+                case "process":
+                    return process(arg);
+                case "board":
+                    return board(arg);
+                case "depart":
+                    return manager.departBus();
+                case "assign":
+                    return manager.assignBusToQueue(arg);
+                case "addbus":
+                    return manager.addManualBus(arg);
+                case "remove":
+                    return manager.removePassenger(intArg(arg, -1));
+                case "search":
+                    return search(arg);
+                case "status":
+                    return manager.getPassengerStatus(intArg(arg, -1)).toString();
+                case "queues":
+                    return queues();
+                case "report":
+                    return report(arg);
+                case "bench":
+                    return bench(intArg(arg, 10000));
+                case "archive":
+                    return manager.getArchiveReport(intArg(arg, 1));
+                case "snapshot":
+                    return manager.snapshot() ? "SNAPSHOT: State saved, journal truncated."
+                            : "ERROR: Snapshots are off (no journal) or the write failed.";
+                default:
+                    return "ERROR: Unknown command '" + command + "'. Type 'help' for the command list.";
+            }
+        } catch (NumberFormatException e) {
+            return "ERROR: '" + arg + "' is not a number.";
+        }
+    }
+
+    // ====================================================================
+    // COMMANDS
+    // ====================================================================
+
+    // Lists the available commands
+    private String help() {
+        return "add <name>|<destination>|<ticket type>|<cash>  Enqueue a passenger in the ticket area\n"
+                + "predefined [n]       Enqueue n predefined passengers\n"
+                + "process [n|all]      Verify payment for the next passenger, n passengers or all\n"
+                + "board [n|all]        Board the next passenger, n passengers or until the bus is full\n"
+                + "depart               Depart the current bus\n"
+                + "assign <bus>         Assign a bus to the queue\n"
+                + "addbus <bus>         Add a bus to the system\n"
+                + "remove <id>          Remove a passenger\n"
+                + "search <id|name>     Find a passenger\n"
+                + "status <id>          Queue stage, position and estimated wait\n"
+                + "queues               Queue sizes and current bus\n"
+                + "report [buses|payment|financial|all]\n"
+                + "archive [days]       Archived boardings and revenue since midnight, or the last n days\n"
+                + "bench [n]            Run n synthetic passengers through the whole pipeline\n"
+                + "snapshot             Save a snapshot now and truncate the journal behind it\n"
+                + "quit                 End the session";
+    }
+
+    // Enqueues a passenger from "name|destination|ticket type|cash"
+    private String add(String arg) {
+        String[] fields = arg.split("\\|", -1);
+        if (fields.length != 4) {
+            return "ERROR: Usage: add <name>|<destination>|<ticket type>|<cash>";
+        }
+        Passenger p = new Passenger(fields[0].trim(), fields[1].trim(), fields[2].trim(), "Cash",
+                fields[3].trim());
+        return manager.addPassengerToTicketArea(p);
+    }
+
+    // Verifies payment for one, n or all waiting passengers
+    private String process(String arg) {
+        if (arg.isEmpty()) {
+            return manager.passPassengerToAssignArea();
+        }
+        TicketingResult result = arg.equalsIgnoreCase("all")
+                ? manager.processUntilAssignFull()
+                : manager.processUpTo(intArg(arg, 1));
+        return result.getMessage();
+    }
+
+    // Boards one, n or as many passengers as fit
+    private String board(String arg) {
+        if (arg.isEmpty()) {
+            return manager.addPassengerToBus();
+        }
+        BoardingResult result = arg.equalsIgnoreCase("all")
+                ? manager.boardUntilFull()
+                : manager.boardUpTo(intArg(arg, 1));
+        return result.getMessage();
+    }
+
+    // Looks a passenger up by ID or name
+    private String search(String arg) {
+        Passenger p = manager.searchPassenger(arg);
+        if (p == null) {
+            return "ERROR: Passenger '" + arg + "' not found.";
+        }
+        return "FOUND: ID " + p.getPassengerId() + " | " + p.getName() + " | " + p.getDestination() + " | "
+                + p.getTicketType() + " | ₱" + p.getMoneyPaid() + " | " + manager.getPassengerLocation(p.getPassengerId());
+    }
+
+    // Queue sizes and the bus currently boarding
+    private String queues() {
+        return "TICKET AREA: " + manager.getTicketAreaSize() + "/" + manager.getTicketAreaCapacity()
+                + " | ASSIGN AREA: " + manager.getAssignAreaCurrentSize() + "/"
+                + manager.getAssignAreaDisplayCapacity()
+                + " | BUS: " + manager.getCurrentlyAssignedBusName()
+                + " | SERVED: " + manager.getServedCount();
+    }
+
+    // One of the manager's text reports
+    private String report(String arg) {
+        switch (arg.toLowerCase(Locale.ROOT)) {
+            case "buses":
+                return manager.getBusStatusReport();
+            case "payment":
+                return manager.getPaymentReport();
+            case "financial":
+                return manager.getFinancialReport();
+            case "":
+            case "all":
+                return manager.getComprehensiveReport();
+            default:
+                return "ERROR: Unknown report '" + arg + "'. Use buses, payment, financial or all.";
+        }
+    }
+
+    // Pushes n synthetic passengers through enqueue, ticketing, boarding and
+    // departure on this engine and reports the throughput
+    private String bench(int count) {
+        if (count <= 0) {
+            return "ERROR: Bench size must be positive.";
+        }
+        List<String> ticketTypes = manager.getFareTable().getTicketTypeNames();
+        long servedBefore = manager.getServedCount();
+        int enqueued = 0;
+        long start = System.nanoTime();
+
+        while (enqueued < count) {
+            String ticketType = ticketTypes.get(enqueued % ticketTypes.size());
+            String cash = Long.toString(manager.getFareTable().getFareCentavos(ticketType) / 100);
+            Passenger p = new Passenger("Bench " + enqueued, "Bench Terminal", ticketType, "Cash", cash);
+            if (!manager.addPassengerToTicketArea(p).startsWith("ALERT")) {
+                enqueued++;
+                continue;
+            }
+            // Ticket area full: move the pipeline along until a slot opens
+            if (!drainPipeline()) {
+                return "ERROR: Bench stalled after " + enqueued + " passengers (no bus can board).";
+            }
+        }
+        while (manager.getTicketAreaSize() > 0 || manager.getAssignAreaCurrentSize() > 0) {
+            if (!drainPipeline()) {
+                return "ERROR: Bench stalled while draining (no bus can board).";
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long served = manager.getServedCount() - servedBefore;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return "BENCH: " + count + " passengers enqueued, " + served + " served in "
+                + Math.round(elapsedNanos / 1_000_000.0) + " ms ("
+                + Math.round(served / Math.max(seconds, 1e-9)) + " passengers/s)";
+    }
+
+    // One round of ticketing, boarding and departure for bench; false if
+    // nothing moved
+    private boolean drainPipeline() {
+        int processed = manager.processUntilAssignFull().getProcessedCount();
+        BoardingResult boarded = manager.boardUntilFull();
+        boolean departed = false;
+        if (boarded.isBusFull() || (boarded.getBoardedCount() == 0 && manager.canDepartBus())) {
+            departed = !manager.departBus().startsWith("ERROR");
+        }
+        return processed > 0 || boarded.getBoardedCount() > 0 || departed;
+    }
+
+    private static int intArg(String arg, int defaultValue) {
+        return arg.isEmpty() ? defaultValue : Integer.parseInt(arg);
+    }
+}
@@ -0,0 +1,104 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import models.TransitQManager;
+
+// Runs the TransitQ engine (models only) without Swing, driven by commands:
+//   java main.TransitQHeadless                      commands from stdin
+//   java main.TransitQHeadless --script run.txt     commands from a file
+//   java main.TransitQHeadless --port 7070          commands over a loopback socket
+// See CommandInterpreter for the command set ("help" lists it). State is kept
+// across runs only with -Dtransitq.journal=<dir>, and boardings are archived
+// only with -Dtransitq.servedArchive=<dir>.
+public class TransitQHeadless {
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        CommandInterpreter interpreter = new CommandInterpreter(new TransitQManager());
+
+        try {
+            if (args.length == 2 && args[0].equals("--script")) {
+                runScript(interpreter, args[1]);
+            } else if (args.length == 2 && args[0].equals("--port")) {
+                serve(interpreter, Integer.parseInt(args[1]));
+            } else if (args.length == 0) {
+                runSession(interpreter, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                        new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true), false);
+            } else {
+                System.err.println("Usage: TransitQHeadless [--script <file> | --port <port>]");
+                System.exit(2);
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("TransitQ headless: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            // Final snapshot and journal flush
+            interpreter.getManager().close();
+        }
+    }
+
+    // Runs every line of a command file, echoing each command before its reply
+    private static void runScript(CommandInterpreter interpreter, String file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+            String line;
+            while ((line = in.readLine()) != null && !CommandInterpreter.isQuit(line)) {
+                String reply = interpreter.execute(line);
+                if (!reply.isEmpty()) {
+                    out.println("> " + line.trim());
+                    out.println(reply);
+                }
+            }
+        }
+    }
+
+    // Accepts loopback connections, one session thread per client, all
+    // sharing the same engine
+    private static void serve(CommandInterpreter interpreter, int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("TransitQ headless engine listening on " + server.getLocalSocketAddress());
+            while (true) {
+                Socket client = server.accept();
+                Thread session = new Thread(() -> {
+                    try (Socket socket = client;
+                            BufferedReader in = new BufferedReader(
+                                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                            PrintWriter out = new PrintWriter(
+                                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+                        runSession(interpreter, in, out, true);
+                    } catch (IOException e) {
+                        System.err.println("TransitQ headless: client session ended: " + e.getMessage());
+                    }
+                }, "transitq-session-" + client.getPort());
+                session.setDaemon(true);
+                session.start();
+            }
+        }
+    }
+
+    // Reads commands until quit or end of input. With framed replies every
+    // reply ends with a line holding a single "." so clients know where it stops.
+    private static void runSession(CommandInterpreter interpreter, BufferedReader in, PrintWriter out,
+            boolean framed) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null && !CommandInterpreter.isQuit(line)) {
+            String reply = interpreter.execute(line);
+            if (!reply.isEmpty()) {
+                out.println(reply);
+            }
+            if (framed) {
+                out.println(".");
+            }
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package main;
 
+import java.util.Arrays;
 import ui.LoginForm;
 import ui.TransitQGUI;
 
 public class TransitQMain {
     public static void main(String[] args) {
+        // --headless [--script <file> | --port <port>] runs the engine without Swing.
+        // Each launch starts fresh unless -Dtransitq.journal=<dir> (e.g.
+        // data/journal) is given, which journals changes and restores them on
+        // the next launch. Boarded passengers are archived to disk only with
+        // -Dtransitq.servedArchive=<dir> (e.g. data/served-archive).
+        if (args.length > 0 && args[0].equals("--headless")) {
+            TransitQHeadless.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         TransitQGUI mainApp = new TransitQGUI();
         mainApp.setVisible(false);
 
@@ -12,4 +23,4 @@ public class TransitQMain {
         loginForm.setVisible(true);
 
     }
-}
\ No newline at end of file
+}
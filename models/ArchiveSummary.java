@@ -0,0 +1,81 @@
+package models;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Outcome of a served-archive query: boardings and revenue in a time range,
+// broken down by destination and by ticket type
+public class ArchiveSummary {
+
+    // Boardings and revenue for one destination or ticket type
+    public static final class Total {
+        private final long count;
+        private final long revenueCentavos;
+
+        Total(long count, long revenueCentavos) {
+            this.count = count;
+            this.revenueCentavos = revenueCentavos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getRevenueCentavos() {
+            return revenueCentavos;
+        }
+    }
+
+    private final long fromMillis;
+    private final long toMillis;
+    private final long rowsScanned;
+    private final long boardedCount;
+    private final long revenueCentavos;
+    private final Map<String, Total> byDestination;
+    private final Map<String, Total> byTicketType;
+
+    public ArchiveSummary(long fromMillis, long toMillis, long rowsScanned, long boardedCount,
+            long revenueCentavos, Map<String, Total> byDestination, Map<String, Total> byTicketType) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.rowsScanned = rowsScanned;
+        this.boardedCount = boardedCount;
+        this.revenueCentavos = revenueCentavos;
+        this.byDestination = Collections.unmodifiableMap(byDestination);
+        this.byTicketType = Collections.unmodifiableMap(byTicketType);
+    }
+
+    // Start of the range (inclusive), epoch millis
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    // End of the range (exclusive), epoch millis
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    // Rows in the archive when the query ran
+    public long getRowsScanned() {
+        return rowsScanned;
+    }
+
+    // Boardings inside the range
+    public long getBoardedCount() {
+        return boardedCount;
+    }
+
+    public long getRevenueCentavos() {
+        return revenueCentavos;
+    }
+
+    // Per destination, highest revenue first
+    public Map<String, Total> getByDestination() {
+        return byDestination;
+    }
+
+    // Per ticket type, highest revenue first
+    public Map<String, Total> getByTicketType() {
+        return byTicketType;
+    }
+}
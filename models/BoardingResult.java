@@ -0,0 +1,57 @@
+package models;
+
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a batch boarding call (boardUpTo / boardUntilFull)
+public class BoardingResult {
+    private final String busName;
+    private final List<Passenger> boardedPassengers;
+    private final int busLoad;
+    private final int busCapacity;
+    private final String message;
+
+    public BoardingResult(String busName, List<Passenger> boardedPassengers, int busLoad, int busCapacity,
+            String message) {
+        this.busName = busName;
+        this.boardedPassengers = Collections.unmodifiableList(boardedPassengers);
+        this.busLoad = busLoad;
+        this.busCapacity = busCapacity;
+        this.message = message;
+    }
+
+    public String getBusName() {
+        return busName;
+    }
+
+    // Passengers boarded in this call, in queue order
+    public List<Passenger> getBoardedPassengers() {
+        return boardedPassengers;
+    }
+
+    public int getBoardedCount() {
+        return boardedPassengers.size();
+    }
+
+    public int getBusLoad() {
+        return busLoad;
+    }
+
+    public int getBusCapacity() {
+        return busCapacity;
+    }
+
+    public boolean isBusFull() {
+        return busCapacity > 0 && busLoad >= busCapacity;
+    }
+
+    // Log line in the same format as the single-passenger operations
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
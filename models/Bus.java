@@ -1,30 +1,65 @@
 package models;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Bus {
     private String name;
     private int capacity;
-    private int currentLoad;
+    // Seats are reserved with CAS so parallel boarding lanes never over-board
+    private final AtomicInteger currentLoad;
 
     public Bus(String name, int capacity) {
         this.name = name;
         this.capacity = capacity;
-        this.currentLoad = 0;
+        this.currentLoad = new AtomicInteger(0);
     }
 
     public boolean boardPassenger() {
-        if (currentLoad < capacity) {
-            currentLoad++;
-            return true;
+        return tryReserveSeat();
+    }
+
+    // Reserves one seat; false if the bus is already full
+    public boolean tryReserveSeat() {
+        return reserveSeats(1) == 1;
+    }
+
+    // Reserves up to n seats and returns how many were granted (0..n)
+    public int reserveSeats(int n) {
+        if (n <= 0) {
+            return 0;
+        }
+        while (true) {
+            int load = currentLoad.get();
+            int granted = Math.min(n, capacity - load);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (currentLoad.compareAndSet(load, load + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    // Gives back seats that were reserved but not used
+    public void releaseSeats(int n) {
+        if (n <= 0) {
+            return;
+        }
+        while (true) {
+            int load = currentLoad.get();
+            int next = Math.max(0, load - n);
+            if (currentLoad.compareAndSet(load, next)) {
+                return;
+            }
         }
-        return false;
     }
 
     public void resetBus() {
-        this.currentLoad = 0;
+        currentLoad.set(0);
     }
 
     public boolean isFull() {
-        return currentLoad >= capacity;
+        return currentLoad.get() >= capacity;
     }
 
     public String getName() {
@@ -36,13 +71,19 @@ public class Bus {
     }
 
     public int getCurrentLoad() {
-        return currentLoad;
+        return currentLoad.get();
+    }
+
+    // Returns number of seats still free
+    public int getAvailableSeats() {
+        return Math.max(0, capacity - currentLoad.get());
     }
 
     // Add toString for better debugging
     @Override
     public String toString() {
+        int load = currentLoad.get();
         return String.format("Bus{name='%s', load=%d/%d, full=%s}", 
-            name, currentLoad, capacity, isFull());
+            name, load, capacity, load >= capacity);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package models;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Ticket fares in centavos, indexed by a small integer ticket code. A ticket
+// type string is resolved to its code once (when the passenger is created);
+// fare lookups after that are array reads.
+public class FareTable {
+    // Location of the station fare configuration, relative to the working directory
+    public static final String CONFIG_PATH = "config/fares.cfg";
+    private static final String DEFAULT_TICKET_TYPE = "standard";
+
+    private static volatile FareTable active;
+
+    private final String[] names;
+    private final long[] fares;
+    private final String[] requirements;
+    private final Map<String, Integer> codesByKey;
+    private final int defaultCode;
+
+    public FareTable(List<String> names, List<Long> fares, List<String> requirements) {
+        if (names.isEmpty() || names.size() != fares.size() || names.size() != requirements.size()) {
+            throw new IllegalArgumentException("Fare table needs one fare and requirement per ticket type");
+        }
+        this.names = names.toArray(new String[0]);
+        this.fares = new long[fares.size()];
+        this.requirements = requirements.toArray(new String[0]);
+        this.codesByKey = new HashMap<>();
+        for (int code = 0; code < this.names.length; code++) {
+            this.fares[code] = fares.get(code);
+            codesByKey.put(key(this.names[code]), code);
+        }
+        this.defaultCode = codesByKey.getOrDefault(DEFAULT_TICKET_TYPE, 0);
+    }
+
+    // Fares printed on the station price list, used when no config file is present
+    public static FareTable standard() {
+        List<String> names = new ArrayList<>();
+        List<Long> fares = new ArrayList<>();
+        List<String> requirements = new ArrayList<>();
+        names.add("VIP");
+        fares.add(10000L);
+        requirements.add("Premium seat, Air Conditioning");
+        names.add("Standard");
+        fares.add(5000L);
+        requirements.add("Regular fare");
+        names.add("Discounted");
+        fares.add(3500L);
+        requirements.add("Students, Seniors (60+), PWD - valid ID required");
+        return new FareTable(names, fares, requirements);
+    }
+
+    // Loads a fare table from "<type> = <fare> | <requirements>" lines
+    public static FareTable load(Path path) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Long> fares = new ArrayList<>();
+        List<String> requirements = new ArrayList<>();
+
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int equals = trimmed.indexOf('=');
+            if (equals <= 0) {
+                throw new IOException(path + ":" + lineNumber + ": expected '<ticket type> = <fare>'");
+            }
+            String name = trimmed.substring(0, equals).trim();
+            String rest = trimmed.substring(equals + 1);
+            String requirement = "";
+            int bar = rest.indexOf('|');
+            if (bar >= 0) {
+                requirement = rest.substring(bar + 1).trim();
+                rest = rest.substring(0, bar);
+            }
+            try {
+                fares.add(Money.parseCentavos(rest));
+            } catch (NumberFormatException e) {
+                throw new IOException(path + ":" + lineNumber + ": invalid fare '" + rest.trim() + "'");
+            }
+            names.add(name);
+            requirements.add(requirement);
+        }
+        if (names.isEmpty()) {
+            throw new IOException(path + ": no ticket types defined");
+        }
+        return new FareTable(names, fares, requirements);
+    }
+
+    // Returns the station fare table, loading CONFIG_PATH on first use
+    public static FareTable active() {
+        FareTable table = active;
+        if (table == null) {
+            synchronized (FareTable.class) {
+                table = active;
+                if (table == null) {
+                    table = loadConfiguredOrStandard();
+                    active = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static FareTable loadConfiguredOrStandard() {
+        Path path = Paths.get(CONFIG_PATH);
+        if (Files.isRegularFile(path)) {
+            try {
+                return load(path);
+            } catch (IOException e) {
+                System.err.println("Could not load fare table, using built-in fares: " + e.getMessage());
+            }
+        }
+        return standard();
+    }
+
+    // Resolves a ticket type to its code (unknown types get the default code)
+    public int codeOf(String ticketType) {
+        if (ticketType == null) {
+            return defaultCode;
+        }
+        Integer code = codesByKey.get(key(ticketType));
+        return code == null ? defaultCode : code;
+    }
+
+    // Checks whether a ticket type names a class in this table
+    public boolean isKnown(String ticketType) {
+        return ticketType != null && codesByKey.containsKey(key(ticketType));
+    }
+
+    public long getFare(int code) {
+        return fares[code];
+    }
+
+    public String getName(int code) {
+        return names[code];
+    }
+
+    public String getRequirements(int code) {
+        return requirements[code];
+    }
+
+    // Number of ticket classes; codes run from 0 to size() - 1
+    public int size() {
+        return names.length;
+    }
+
+    public List<String> getTicketTypeNames() {
+        List<String> list = new ArrayList<>(names.length);
+        Collections.addAll(list, names);
+        return list;
+    }
+
+    // Returns the fare for a ticket type (unknown types pay the default fare)
+    public long getFareCentavos(String ticketType) {
+        return fares[codeOf(ticketType)];
+    }
+
+    // Checks a payment already parsed to centavos against the fare of a ticket code
+    public boolean isPaymentSufficient(long paidCentavos, int code) {
+        return paidCentavos != Money.INVALID && paidCentavos >= fares[code];
+    }
+
+    // Checks a payment already parsed to centavos against the fare
+    public boolean isPaymentSufficient(long paidCentavos, String ticketType) {
+        return isPaymentSufficient(paidCentavos, codeOf(ticketType));
+    }
+
+    private static String key(String ticketType) {
+        return ticketType.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,570 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+
+// Append-only binary write-ahead journal of manager operations. Records get
+// consecutive log sequence numbers (LSNs) and live in segment files named
+// journal-<first LSN>.seg, each starting with a 4-byte magic. A record is
+// [payload length][LSN][type][payload][CRC32 of LSN, type and payload].
+//
+// append() only copies the record into an in-memory buffer, so it costs
+// microseconds. A background thread writes the buffer out in batches (group
+// commit) and syncs it according to the FsyncPolicy; under ALWAYS, commit()
+// blocks until the caller's records are on disk, and every caller waiting at
+// the same time shares one fsync. On startup open() replays the records,
+// cutting off a torn or corrupt tail left by a crash. An I/O failure disables
+// the journal and is reported on System.err, like the other on-disk logs.
+public class Journal {
+
+    // Journal directory. Persistence is opt-in: with the property unset (or
+    // "none") nothing is journaled and every launch starts fresh, as before.
+    public static final String DIR_PROPERTY = "transitq.journal";
+    public static final String FSYNC_PROPERTY = "transitq.journal.fsync";
+    public static final String FSYNC_MILLIS_PROPERTY = "transitq.journal.fsyncMillis";
+    public static final String SEGMENT_BYTES_PROPERTY = "transitq.journal.segmentBytes";
+
+    public enum FsyncPolicy {
+        // commit() waits until the record is synced; concurrent commits share one fsync
+        ALWAYS,
+        // Written and synced in the background every fsyncMillis
+        INTERVAL,
+        // Written in the background; the OS decides when it reaches the disk
+        NEVER
+    }
+
+    // Receives replayed records in LSN order
+    public interface RecordHandler {
+        void apply(long lsn, JournalRecord record);
+    }
+
+    private static final int SEGMENT_MAGIC = 0x54514A31; // "TQJ1"
+    private static final int MAGIC_BYTES = 4;
+    private static final int HEADER_BYTES = 4 + 8 + 1; // payload length, LSN, type
+    private static final int TRAILER_BYTES = 4; // CRC32
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long fsyncMillis;
+    private final long segmentBytes;
+
+    // Guards the pending buffer and LSN counters
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+    private byte[] pending = new byte[64 * 1024];
+    private int pendingLength;
+    private long pendingFirstLsn;
+    private long nextLsn = 1;
+    private volatile long durableLsn;
+    private volatile boolean enabled;
+    private boolean closing;
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+
+    // Owned by the flusher thread once open() has returned
+    private byte[] spare = new byte[64 * 1024];
+    private FileChannel segment;
+    private long segmentSize;
+    private Thread flusher;
+
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+    private boolean lockAttempted;
+
+    public Journal(Path directory, FsyncPolicy policy, long fsyncMillis, long segmentBytes) {
+        this.directory = directory;
+        this.policy = policy;
+        this.fsyncMillis = Math.max(1, fsyncMillis);
+        this.segmentBytes = Math.max(MAGIC_BYTES + 1, segmentBytes);
+    }
+
+    // Creates the journal configured by the transitq.journal.* properties
+    public static Journal fromSystemProperties() {
+        String value = System.getProperty(DIR_PROPERTY, "none");
+        Path dir = value.isBlank() || value.equalsIgnoreCase("none") ? null : Paths.get(value);
+        FsyncPolicy policy = FsyncPolicy.INTERVAL;
+        String policyName = System.getProperty(FSYNC_PROPERTY);
+        if (policyName != null) {
+            try {
+                policy = FsyncPolicy.valueOf(policyName.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown journal fsync policy '" + policyName + "', using INTERVAL.");
+            }
+        }
+        return new Journal(dir, policy, Long.getLong(FSYNC_MILLIS_PROPERTY, 20L),
+                Long.getLong(SEGMENT_BYTES_PROPERTY, 16L * 1024 * 1024));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Takes the directory for this journal; false if journaling is off or
+    // another manager holds it. Snapshots in the directory may be read once
+    // this returns true.
+    public boolean lock() {
+        if (directory == null) {
+            return false;
+        }
+        if (!lockAttempted) {
+            lockAttempted = true;
+            try {
+                Files.createDirectories(directory);
+                lockDirectory();
+            } catch (IOException e) {
+                System.err.println("Error locking journal, journaling disabled: " + e.getMessage());
+                closeQuietly();
+            }
+        }
+        return directoryLock != null;
+    }
+
+    // Replays every record after afterLsn (the LSN a loaded snapshot covers,
+    // or 0) into the handler, then opens the journal for appending. Returns
+    // the number of records replayed.
+    public long open(long afterLsn, RecordHandler handler) {
+        if (!lock()) {
+            return 0L;
+        }
+        try {
+            long replayed = replay(afterLsn, handler);
+            enabled = true;
+            flusher = new Thread(this::flushLoop, "transitq-journal");
+            flusher.setDaemon(true);
+            flusher.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close, "transitq-journal-close"));
+            return replayed;
+        } catch (IOException e) {
+            System.err.println("Error opening journal, journaling disabled: " + e.getMessage());
+            closeQuietly();
+            return 0L;
+        }
+    }
+
+    // Buffers a record and returns its LSN (0 if the journal is disabled)
+    public long append(JournalRecord record) {
+        if (!enabled) {
+            return 0L;
+        }
+        synchronized (lock) {
+            if (!enabled) {
+                return 0L;
+            }
+            return appendLocked(record);
+        }
+    }
+
+    // Runs publish and, if it succeeds, appends the record, both under the
+    // journal lock. Changes made visible outside any other lock (the lock-free
+    // admission ring) thereby get LSNs in the order they became visible, and
+    // any later record about them gets a higher LSN. Returns publish's result.
+    public boolean appendIfPublished(JournalRecord record, BooleanSupplier publish) {
+        if (!enabled) {
+            return publish.getAsBoolean();
+        }
+        synchronized (lock) {
+            if (!publish.getAsBoolean()) {
+                return false;
+            }
+            if (enabled) {
+                appendLocked(record);
+            }
+            return true;
+        }
+    }
+
+    // Copies a record into the pending buffer; caller holds lock
+    private long appendLocked(JournalRecord record) {
+        int payload = record.length();
+        int size = HEADER_BYTES + payload + TRAILER_BYTES;
+        if (pendingLength + size > pending.length) {
+            byte[] grown = new byte[Math.max(pending.length * 2, pendingLength + size)];
+            System.arraycopy(pending, 0, grown, 0, pendingLength);
+            pending = grown;
+        }
+        long lsn = nextLsn++;
+        int start = pendingLength;
+        putInt(pending, start, payload);
+        putLong(pending, start + 4, lsn);
+        pending[start + 12] = record.getType();
+        System.arraycopy(record.array(), record.offset(), pending, start + HEADER_BYTES, payload);
+        crc.reset();
+        crc.update(pending, start + 4, 8 + 1 + payload);
+        putInt(pending, start + HEADER_BYTES + payload, (int) crc.getValue());
+        pendingLength += size;
+        if (pendingFirstLsn == 0) {
+            pendingFirstLsn = lsn;
+        }
+        if (policy == FsyncPolicy.ALWAYS) {
+            lock.notifyAll();
+        }
+        lastAppended.get()[0] = lsn;
+        return lsn;
+    }
+
+    // Under ALWAYS, waits until this thread's appended records are synced;
+    // returns at once under the other policies. Call it after releasing locks.
+    public void commit() {
+        if (policy != FsyncPolicy.ALWAYS) {
+            return;
+        }
+        long lsn = lastAppended.get()[0];
+        if (lsn == 0 || durableLsn >= lsn) {
+            return;
+        }
+        synchronized (lock) {
+            while (enabled && durableLsn < lsn) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // First LSN of the oldest segment on disk (0 if there are none); replay
+    // after a snapshot at LSN n needs this to be at most n + 1
+    public long getFirstLsn() {
+        if (directory == null) {
+            return 0L;
+        }
+        try {
+            List<Path> segments = listSegments();
+            return segments.isEmpty() ? 0L : firstLsnOf(segments.get(0));
+        } catch (IOException | NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    // LSN of the newest appended record (0 if none)
+    public long getLastLsn() {
+        synchronized (lock) {
+            return nextLsn - 1;
+        }
+    }
+
+    // Deletes segments whose records all precede lsn (they are covered by a
+    // snapshot); the newest segment is always kept
+    public void truncateBefore(long lsn) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Path> segments = listSegments();
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (firstLsnOf(segments.get(i + 1)) > lsn) {
+                    break;
+                }
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error truncating journal: " + e.getMessage());
+        }
+    }
+
+    // Writes out and syncs everything appended so far, then stops the journal
+    public void close() {
+        Thread thread;
+        synchronized (lock) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            lock.notifyAll();
+            thread = flusher;
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        enabled = false;
+        closeQuietly();
+    }
+
+    // ====================================================================
+    // GROUP COMMIT
+    // ====================================================================
+
+    // Writes pending batches until closed; one write (and sync) per batch
+    private void flushLoop() {
+        while (true) {
+            byte[] batch;
+            int batchLength;
+            long firstLsn;
+            long lastLsn;
+            synchronized (lock) {
+                try {
+                    if (policy == FsyncPolicy.ALWAYS) {
+                        while (pendingLength == 0 && !closing) {
+                            lock.wait();
+                        }
+                    } else if (!closing) {
+                        lock.wait(fsyncMillis);
+                    }
+                } catch (InterruptedException e) {
+                    closing = true;
+                }
+                if (pendingLength == 0) {
+                    if (closing) {
+                        return;
+                    }
+                    continue;
+                }
+                batch = pending;
+                batchLength = pendingLength;
+                firstLsn = pendingFirstLsn;
+                lastLsn = nextLsn - 1;
+                pending = spare;
+                pendingLength = 0;
+                pendingFirstLsn = 0;
+            }
+
+            try {
+                if (segment == null || segmentSize >= segmentBytes) {
+                    rollSegment(firstLsn);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(batch, 0, batchLength);
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+                segmentSize += batchLength;
+                if (policy != FsyncPolicy.NEVER) {
+                    segment.force(false);
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing journal, journaling disabled: " + e.getMessage());
+                synchronized (lock) {
+                    enabled = false;
+                    lock.notifyAll();
+                }
+                closeQuietly();
+                return;
+            }
+
+            spare = batch;
+            synchronized (lock) {
+                durableLsn = lastLsn;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Closes the current segment and starts a new one at firstLsn
+    private void rollSegment(long firstLsn) throws IOException {
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+        segment = FileChannel.open(segmentPath(firstLsn), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer magic = ByteBuffer.allocate(MAGIC_BYTES).putInt(SEGMENT_MAGIC);
+        magic.flip();
+        while (magic.hasRemaining()) {
+            segment.write(magic);
+        }
+        segmentSize = MAGIC_BYTES;
+    }
+
+    // ====================================================================
+    // REPLAY
+    // ====================================================================
+
+    // Reads all segments in order, stopping at the first torn or corrupt
+    // record; everything after that point is cut off so appends continue
+    // from a clean tail
+    private long replay(long afterLsn, RecordHandler handler) throws IOException {
+        List<Path> segments = listSegments();
+        long lastLsn = 0;
+        long replayed = 0;
+        Path tailSegment = null;
+        long tailSize = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            byte[] bytes = Files.readAllBytes(file);
+            int pos = MAGIC_BYTES;
+            boolean valid = bytes.length >= MAGIC_BYTES && getInt(bytes, 0) == SEGMENT_MAGIC;
+
+            while (valid && pos < bytes.length) {
+                if (bytes.length - pos < HEADER_BYTES + TRAILER_BYTES) {
+                    break;
+                }
+                int payload = getInt(bytes, pos);
+                if (payload < 0 || bytes.length - pos - HEADER_BYTES - TRAILER_BYTES < payload) {
+                    break;
+                }
+                crc.reset();
+                crc.update(bytes, pos + 4, 8 + 1 + payload);
+                if ((int) crc.getValue() != getInt(bytes, pos + HEADER_BYTES + payload)) {
+                    break;
+                }
+                long lsn = getLong(bytes, pos + 4);
+                if (lastLsn != 0 && lsn != lastLsn + 1) {
+                    break;
+                }
+                lastLsn = lsn;
+                if (lsn > afterLsn) {
+                    try {
+                        handler.apply(lsn, new JournalRecord(bytes[pos + 12], bytes, pos + HEADER_BYTES, payload));
+                        replayed++;
+                    } catch (RuntimeException e) {
+                        System.err.println("Error replaying journal record " + lsn + ": " + e);
+                    }
+                }
+                pos += HEADER_BYTES + payload + TRAILER_BYTES;
+            }
+
+            if (!valid || pos < bytes.length) {
+                System.err.println("Journal: discarding damaged tail of " + file.getFileName() + " at byte "
+                        + (valid ? pos : 0) + " (" + (segments.size() - i - 1) + " later segment(s) dropped).");
+                for (int j = i + 1; j < segments.size(); j++) {
+                    Files.deleteIfExists(segments.get(j));
+                }
+                if (!valid) {
+                    Files.deleteIfExists(file);
+                } else {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        channel.truncate(pos);
+                    }
+                    tailSegment = file;
+                    tailSize = pos;
+                }
+                break;
+            }
+            tailSegment = file;
+            tailSize = bytes.length;
+        }
+
+        nextLsn = Math.max(lastLsn, afterLsn) + 1;
+        durableLsn = nextLsn - 1;
+        if (tailSegment != null && tailSize < segmentBytes) {
+            segment = FileChannel.open(tailSegment, StandardOpenOption.WRITE);
+            segment.position(tailSize);
+            segmentSize = tailSize;
+        }
+        return replayed;
+    }
+
+    // Segment files sorted by first LSN
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                segments.add(file);
+            }
+        }
+        // Names are zero-padded, so name order is LSN order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static long firstLsnOf(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private Path segmentPath(long firstLsn) {
+        String digits = Long.toString(firstLsn);
+        StringBuilder name = new StringBuilder(SEGMENT_PREFIX);
+        for (int i = digits.length(); i < 20; i++) {
+            name.append('0');
+        }
+        return directory.resolve(name.append(digits).append(SEGMENT_SUFFIX).toString());
+    }
+
+    // ====================================================================
+    // HELPERS
+    // ====================================================================
+
+    // Takes an exclusive lock on the directory so two managers never share it
+    private boolean lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            System.err.println("Journal " + directory + " is in use by another manager, journaling disabled.");
+            lockChannel.close();
+            lockChannel = null;
+            return false;
+        }
+        return true;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (segment != null) {
+                if (policy != FsyncPolicy.NEVER) {
+                    segment.force(false);
+                }
+                segment.close();
+            }
+        } catch (IOException ignored) {
+            // already failing or shutting down; nothing more to report
+        }
+        segment = null;
+        try {
+            if (directoryLock != null) {
+                directoryLock.release();
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException ignored) {
+            // lock goes away with the process anyway
+        }
+        directoryLock = null;
+        lockChannel = null;
+    }
+
+    private static void putInt(byte[] b, int at, int value) {
+        b[at] = (byte) (value >>> 24);
+        b[at + 1] = (byte) (value >>> 16);
+        b[at + 2] = (byte) (value >>> 8);
+        b[at + 3] = (byte) value;
+    }
+
+    private static void putLong(byte[] b, int at, long value) {
+        putInt(b, at, (int) (value >>> 32));
+        putInt(b, at + 4, (int) value);
+    }
+
+    private static int getInt(byte[] b, int at) {
+        return ((b[at] & 0xFF) << 24) | ((b[at + 1] & 0xFF) << 16) | ((b[at + 2] & 0xFF) << 8) | (b[at + 3] & 0xFF);
+    }
+
+    private static long getLong(byte[] b, int at) {
+        return ((long) getInt(b, at) << 32) | (getInt(b, at + 4) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,136 @@
+package models;
+
+import java.nio.charset.StandardCharsets;
+
+// One journal entry: a record type plus a compact binary payload of ints,
+// longs and UTF-8 strings. Used both ways: the manager builds a record with
+// the put methods and hands it to Journal.append; replay hands records back
+// positioned at the start of the payload for the get methods.
+public final class JournalRecord {
+
+    // Record types (see TransitQManager.applyJournalRecord for the payloads)
+    public static final byte ENQUEUED = 1;
+    public static final byte TICKETED = 2;
+    public static final byte BOARDED = 3;
+    public static final byte REMOVED = 4;
+    public static final byte UPDATED = 5;
+    public static final byte PAYMENT_UPDATED = 6;
+    public static final byte DEPARTED = 7;
+    public static final byte BUS_ASSIGNED = 8;
+    public static final byte BUS_ADDED = 9;
+    public static final byte BUS_NAME_AVAILABLE = 10;
+
+    private final byte type;
+    private byte[] data;
+    private final int offset;
+    private int length;
+    private int position;
+
+    // Empty record for writing
+    public JournalRecord(byte type) {
+        this.type = type;
+        this.data = new byte[64];
+        this.offset = 0;
+    }
+
+    // Record over an existing payload for reading
+    JournalRecord(byte type, byte[] data, int offset, int length) {
+        this.type = type;
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.position = offset;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    // --- Writing ---
+
+    public JournalRecord putInt(int value) {
+        ensureCapacity(4);
+        int at = offset + length;
+        data[at] = (byte) (value >>> 24);
+        data[at + 1] = (byte) (value >>> 16);
+        data[at + 2] = (byte) (value >>> 8);
+        data[at + 3] = (byte) value;
+        length += 4;
+        return this;
+    }
+
+    public JournalRecord putLong(long value) {
+        putInt((int) (value >>> 32));
+        return putInt((int) value);
+    }
+
+    public JournalRecord putBoolean(boolean value) {
+        ensureCapacity(1);
+        data[offset + length] = (byte) (value ? 1 : 0);
+        length++;
+        return this;
+    }
+
+    // Null-safe: a null string is written as length -1
+    public JournalRecord putString(String value) {
+        if (value == null) {
+            return putInt(-1);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, data, offset + length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    // --- Reading ---
+
+    public int getInt() {
+        int at = position;
+        position += 4;
+        return ((data[at] & 0xFF) << 24) | ((data[at + 1] & 0xFF) << 16)
+                | ((data[at + 2] & 0xFF) << 8) | (data[at + 3] & 0xFF);
+    }
+
+    public long getLong() {
+        long high = getInt();
+        return (high << 32) | (getInt() & 0xFFFFFFFFL);
+    }
+
+    public boolean getBoolean() {
+        return data[position++] != 0;
+    }
+
+    public String getString() {
+        int size = getInt();
+        if (size < 0) {
+            return null;
+        }
+        String value = new String(data, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+    // --- Raw access for Journal ---
+
+    byte[] array() {
+        return data;
+    }
+
+    int offset() {
+        return offset;
+    }
+
+    int length() {
+        return length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (offset + length + extra > data.length) {
+            byte[] grown = new byte[Math.max(data.length * 2, offset + length + extra)];
+            System.arraycopy(data, 0, grown, 0, offset + length);
+            data = grown;
+        }
+    }
+}
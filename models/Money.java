@@ -0,0 +1,95 @@
+package models;
+
+// Peso amounts as long centavos. Amounts are parsed once when a passenger is
+// created; everything downstream works in integer arithmetic.
+public final class Money {
+    // Marker for an amount that could not be parsed
+    public static final long INVALID = -1L;
+
+    private Money() {
+    }
+
+    // Parses "50", "50.5" or "50.00" into centavos. Digits past the second
+    // decimal must be zero: rounding "99.995" up would let an underpayment
+    // pass as a full fare, so such amounts are rejected.
+    public static long parseCentavos(String amount) {
+        if (amount == null) {
+            throw new NumberFormatException("Amount is missing");
+        }
+        String text = amount.trim();
+        int length = text.length();
+        if (length == 0) {
+            throw new NumberFormatException("Amount is empty");
+        }
+
+        long pesos = 0;
+        int i = 0;
+        int digits = 0;
+        for (; i < length && text.charAt(i) != '.'; i++, digits++) {
+            pesos = pesos * 10 + digitAt(text, i);
+            if (pesos > Long.MAX_VALUE / 1000) {
+                throw new NumberFormatException("Amount too large: " + amount);
+            }
+        }
+
+        long centavos = 0;
+        if (i < length) {
+            i++; // skip '.'
+            int fractionDigits = 0;
+            for (; i < length; i++, fractionDigits++) {
+                int d = digitAt(text, i);
+                if (fractionDigits < 2) {
+                    centavos = centavos * 10 + d;
+                } else if (d != 0) {
+                    throw new NumberFormatException("Amount has fractions of a centavo: " + amount);
+                }
+            }
+            digits += fractionDigits;
+            if (fractionDigits == 1) {
+                centavos *= 10;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not an amount: " + amount);
+        }
+        return pesos * 100 + centavos;
+    }
+
+    // Parses an amount, returning INVALID instead of throwing
+    public static long parseOrInvalid(String amount) {
+        try {
+            return parseCentavos(amount);
+        } catch (NumberFormatException e) {
+            return INVALID;
+        }
+    }
+
+    // Formats centavos as "1234.50"
+    public static String format(long centavos) {
+        StringBuilder sb = new StringBuilder(12);
+        appendTo(sb, centavos);
+        return sb.toString();
+    }
+
+    // Appends centavos as "1234.50" without creating intermediate strings
+    public static StringBuilder appendTo(StringBuilder sb, long centavos) {
+        if (centavos < 0) {
+            sb.append('-');
+            centavos = -centavos;
+        }
+        long fraction = centavos % 100;
+        sb.append(centavos / 100).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+
+    private static int digitAt(String text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        return c - '0';
+    }
+}
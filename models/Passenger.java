@@ -1,25 +1,77 @@
 package models;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Passenger {
-    private static int nextId = 1001;
+    // Shared by every kiosk thread, so IDs are handed out atomically
+    private static final AtomicInteger nextId = new AtomicInteger(1001);
+    // Only the name is kept as text. Destination and payment method are
+    // StringPool codes, the ticket type is its fare table code and the amount
+    // is centavos; the getters turn them back into strings on demand. Input
+    // that has no code keeps its own text instead: a destination the full
+    // pool refused, a ticket type the fare table does not know, an amount
+    // that does not parse. Those fields are null for everyone else.
     private int passengerId;
     private String name;
-    private String destination;
-    private String ticketType;
-    private String paymentMethod;
-    private String moneyPaid;
+    private int destinationCode;
+    // Set only when destinationCode is StringPool.UNPOOLED
+    private String unpooledDestination;
+    private int paymentMethodCode;
+    private short ticketCode;
+    // Ticket type as entered, set only when the fare table does not know it
+    // (ticketCode is then the default fare's)
+    private String unknownTicketType;
     private boolean isPaid;
+    // Centavos paid, or Money.INVALID if the amount was null or did not parse
+    private long amount;
+    // Amount as entered, set only when it did not parse
+    private String invalidAmountText;
 
     public Passenger(String name, String destination, String ticketType, String paymentMethod, String moneyPaid) {
-        this.passengerId = nextId++;
+        this(nextId.getAndIncrement(), name, destination, ticketType, paymentMethod, moneyPaid);
+    }
+
+    // Restores a passenger with a known ID (journal replay); IDs handed out
+    // afterwards continue past it
+    public Passenger(int passengerId, String name, String destination, String ticketType, String paymentMethod,
+            String moneyPaid) {
+        nextId.accumulateAndGet(passengerId + 1, Math::max);
+        this.passengerId = passengerId;
         this.name = name;
-        this.destination = destination;
-        this.ticketType = ticketType;
-        this.paymentMethod = paymentMethod;
-        this.moneyPaid = moneyPaid;
+        setDestination(destination);
+        setTicketType(ticketType);
+        this.paymentMethodCode = StringPool.PAYMENT_METHODS.codeOf(paymentMethod);
+        setMoneyPaid(moneyPaid);
         this.isPaid = false; // Initialize as unpaid
     }
 
+    // Rebuilds a passenger from the codes a PassengerStore slot holds; the ID
+    // was handed out when the passenger was first created
+    Passenger(int passengerId, String name, int destinationCode, String unpooledDestination, short ticketCode,
+            String unknownTicketType, int paymentMethodCode, long amount, String invalidAmountText,
+            boolean isPaid) {
+        this.passengerId = passengerId;
+        this.name = name;
+        this.destinationCode = destinationCode;
+        this.unpooledDestination = unpooledDestination;
+        this.ticketCode = ticketCode;
+        this.unknownTicketType = unknownTicketType;
+        this.paymentMethodCode = paymentMethodCode;
+        this.amount = amount;
+        this.invalidAmountText = invalidAmountText;
+        this.isPaid = isPaid;
+    }
+
+    // Next ID to be handed out (saved in manager snapshots)
+    static int peekNextId() {
+        return nextId.get();
+    }
+
+    // Makes sure IDs handed out from now on are at least id
+    static void advanceNextId(int id) {
+        nextId.accumulateAndGet(id, Math::max);
+    }
+
     // Getters
     public int getPassengerId() {
         return passengerId;
@@ -30,19 +82,61 @@ public class Passenger {
     }
 
     public String getDestination() {
-        return destination;
+        return destinationCode == StringPool.UNPOOLED ? unpooledDestination
+                : StringPool.DESTINATIONS.get(destinationCode);
+    }
+
+    // StringPool.DESTINATIONS code, or StringPool.UNPOOLED once the pool is
+    // full; equal pooled codes mean equal destinations
+    public int getDestinationCode() {
+        return destinationCode;
     }
 
+    // Destination text when it has no pool code, otherwise null
+    String getUnpooledDestination() {
+        return unpooledDestination;
+    }
+
+    // Canonical fare table name of the ticket type, or the text as entered if
+    // the fare table does not know it
     public String getTicketType() {
-        return ticketType;
+        return unknownTicketType != null ? unknownTicketType : FareTable.active().getName(ticketCode);
+    }
+
+    // Ticket type as entered when the fare table does not know it, otherwise null
+    String getUnknownTicketType() {
+        return unknownTicketType;
+    }
+
+    public int getTicketCode() {
+        return ticketCode;
     }
 
     public String getPaymentMethod() {
-        return paymentMethod;
+        return StringPool.PAYMENT_METHODS.get(paymentMethodCode);
     }
 
+    // StringPool.PAYMENT_METHODS code
+    public int getPaymentMethodCode() {
+        return paymentMethodCode;
+    }
+
+    // Amount as "100.00", or the text as entered if it was not a valid amount
     public String getMoneyPaid() {
-        return moneyPaid;
+        if (amount >= 0) {
+            return Money.format(amount);
+        }
+        return invalidAmountText;
+    }
+
+    // Amount as entered when it did not parse, otherwise null
+    String getInvalidAmountText() {
+        return invalidAmountText;
+    }
+
+    // Centavos paid, or Money.INVALID if the amount could not be parsed
+    public long getAmountCentavos() {
+        return amount;
     }
 
     public boolean isPaid() {
@@ -55,19 +149,23 @@ public class Passenger {
     }
 
     public void setDestination(String destination) {
-        this.destination = destination;
+        this.destinationCode = StringPool.DESTINATIONS.codeOf(destination);
+        this.unpooledDestination = destinationCode == StringPool.UNPOOLED ? destination : null;
     }
 
     public void setTicketType(String ticketType) {
-        this.ticketType = ticketType;
+        FareTable fares = FareTable.active();
+        this.ticketCode = (short) fares.codeOf(ticketType);
+        this.unknownTicketType = ticketType == null || fares.isKnown(ticketType) ? null : ticketType;
     }
 
     public void setPaymentMethod(String paymentMethod) {
-        this.paymentMethod = paymentMethod;
+        this.paymentMethodCode = StringPool.PAYMENT_METHODS.codeOf(paymentMethod);
     }
 
     public void setMoneyPaid(String moneyPaid) {
-        this.moneyPaid = moneyPaid;
+        this.amount = Money.parseOrInvalid(moneyPaid);
+        this.invalidAmountText = amount == Money.INVALID ? moneyPaid : null;
     }
 
     public void setPaid(boolean paid) {
@@ -82,6 +180,6 @@ public class Passenger {
     // Detailed toString for reports
     public String toDetailedString() {
         return String.format("Passenger{id=%d, name='%s', dest='%s', ticket='%s', paid='%s', amount='%s', verified=%s}",
-                passengerId, name, destination, ticketType, paymentMethod, moneyPaid, isPaid);
+                passengerId, name, getDestination(), getTicketType(), getPaymentMethod(), getMoneyPaid(), isPaid);
     }
 }
\ No newline at end of file
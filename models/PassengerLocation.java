@@ -0,0 +1,7 @@
+package models;
+
+// Where an active passenger currently sits inside the station
+public enum PassengerLocation {
+    TICKET_AREA,
+    ASSIGN_AREA
+}
@@ -0,0 +1,296 @@
+package models;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// FIFO passenger queue threaded through the slots of a PassengerStore: the
+// list is int links in the store's next/prev columns and lookup by passenger
+// ID goes through the store's primitive ID map, so the list itself allocates
+// no nodes. poll/offer/remove-by-ID are O(1); queue position is answered in
+// O(log n) from a Fenwick tree over enqueue sequence numbers. Queues sharing
+// a store are told apart by their stage (PassengerLocation). The store keeps
+// fields, not objects: poll, peek, get, removeById and the iterator each build
+// a new Passenger copy per call, edits to a copy are not seen by the queue,
+// and remove/contains match on passenger ID.
+public class PassengerQueue extends AbstractQueue<Passenger> {
+
+    private static final int MIN_TREE_SIZE = 16;
+    private static final int NO_SLOT = PassengerStore.NO_SLOT;
+
+    private final PassengerStore store;
+    private final PassengerLocation stage;
+    private int head = NO_SLOT;
+    private int tail = NO_SLOT;
+    private int size;
+    private int modCount;
+
+    // Fenwick tree counting live slots per sequence number (1-based internally)
+    private int[] tree = new int[MIN_TREE_SIZE + 1];
+    private int nextSeq = 0;
+
+    // Queue for one stage of a (possibly shared) store
+    public PassengerQueue(PassengerStore store, PassengerLocation stage) {
+        this.store = store;
+        this.stage = stage;
+    }
+
+    // Adds passenger to the tail; returns false if the ID is already stored
+    @Override
+    public boolean offer(Passenger p) {
+        if (p == null) {
+            throw new NullPointerException("passenger");
+        }
+        int slot = store.allocate(p, stage);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        link(slot);
+        return true;
+    }
+
+    // Slot of the head passenger, or NO_SLOT if empty; its fields are read
+    // through the store's slot accessors without building a Passenger
+    int headSlot() {
+        return head;
+    }
+
+    // Moves the passenger with this ID to the tail of another queue on the
+    // same store, keeping its slot and fields; returns the slot, or NO_SLOT
+    // if the ID is not in this queue
+    int moveTo(int passengerId, PassengerQueue target) {
+        if (target.store != store) {
+            throw new IllegalArgumentException("queues do not share a store");
+        }
+        int slot = slotOf(passengerId);
+        if (slot == NO_SLOT) {
+            return NO_SLOT;
+        }
+        detach(slot);
+        store.setStageAt(slot, target.stage);
+        target.link(slot);
+        return slot;
+    }
+
+    // Removes the head passenger and returns a copy of it, or null if empty
+    @Override
+    public Passenger poll() {
+        if (head == NO_SLOT) {
+            return null;
+        }
+        Passenger p = store.passenger(head);
+        unlink(head);
+        return p;
+    }
+
+    // Copy of the head passenger without removing it, or null if empty
+    @Override
+    public Passenger peek() {
+        return head == NO_SLOT ? null : store.passenger(head);
+    }
+
+    // Copy of the queued passenger with this ID, or null
+    public Passenger get(int passengerId) {
+        int slot = slotOf(passengerId);
+        return slot == NO_SLOT ? null : store.passenger(slot);
+    }
+
+    // Checks if the passenger ID is queued
+    public boolean containsId(int passengerId) {
+        return slotOf(passengerId) != NO_SLOT;
+    }
+
+    // Removes the passenger with this ID; returns a copy, or null if not queued
+    public Passenger removeById(int passengerId) {
+        int slot = slotOf(passengerId);
+        if (slot == NO_SLOT) {
+            return null;
+        }
+        Passenger p = store.passenger(slot);
+        unlink(slot);
+        return p;
+    }
+
+    // Returns the 1-based position of the passenger, or -1 if not queued
+    public int positionOf(int passengerId) {
+        int slot = slotOf(passengerId);
+        return slot == NO_SLOT ? -1 : treePrefix(store.seqs[slot]);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Passenger)) {
+            return false;
+        }
+        int slot = slotOf(((Passenger) o).getPassengerId());
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        unlink(slot);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Passenger)) {
+            return false;
+        }
+        return slotOf(((Passenger) o).getPassengerId()) != NO_SLOT;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = head; slot != NO_SLOT;) {
+            int following = store.next[slot];
+            store.release(slot);
+            slot = following;
+        }
+        head = NO_SLOT;
+        tail = NO_SLOT;
+        size = 0;
+        tree = new int[MIN_TREE_SIZE + 1];
+        nextSeq = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Passenger> iterator() {
+        return new Iterator<Passenger>() {
+            private int nextSlot = head;
+            private int lastReturned = NO_SLOT;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return nextSlot != NO_SLOT;
+            }
+
+            @Override
+            public Passenger next() {
+                if (expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (nextSlot == NO_SLOT) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = nextSlot;
+                nextSlot = store.next[nextSlot];
+                return store.passenger(lastReturned);
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == NO_SLOT) {
+                    throw new IllegalStateException();
+                }
+                if (expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                unlink(lastReturned);
+                lastReturned = NO_SLOT;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    // Slot of a passenger ID in this queue (not another stage), or NO_SLOT
+    private int slotOf(int passengerId) {
+        int slot = store.slotOf(passengerId);
+        return slot != NO_SLOT && store.stageAt(slot) == stage.ordinal() ? slot : NO_SLOT;
+    }
+
+    // Appends a slot of this stage to the tail and the position tree
+    private void link(int slot) {
+        if (nextSeq >= tree.length - 1) {
+            compactSequence();
+        }
+        store.seqs[slot] = nextSeq++;
+        treeAdd(store.seqs[slot], 1);
+
+        store.next[slot] = NO_SLOT;
+        store.prev[slot] = tail;
+        if (tail == NO_SLOT) {
+            head = slot;
+        } else {
+            store.next[tail] = slot;
+        }
+        tail = slot;
+
+        size++;
+        modCount++;
+    }
+
+    // Detaches a slot from the list and the position tree and frees it
+    private void unlink(int slot) {
+        detach(slot);
+        store.release(slot);
+    }
+
+    // Detaches a slot from the list and the position tree, keeping it stored
+    private void detach(int slot) {
+        int before = store.prev[slot];
+        int after = store.next[slot];
+        if (before == NO_SLOT) {
+            head = after;
+        } else {
+            store.next[before] = after;
+        }
+        if (after == NO_SLOT) {
+            tail = before;
+        } else {
+            store.prev[after] = before;
+        }
+
+        treeAdd(store.seqs[slot], -1);
+        size--;
+        modCount++;
+    }
+
+    // Renumbers live slots 0..size-1 and rebuilds the tree; amortized O(1) per offer
+    private void compactSequence() {
+        int capacity = MIN_TREE_SIZE;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        if (tree.length == capacity + 1) {
+            Arrays.fill(tree, 0);
+        } else {
+            tree = new int[capacity + 1];
+        }
+
+        int seq = 0;
+        for (int slot = head; slot != NO_SLOT; slot = store.next[slot]) {
+            store.seqs[slot] = seq++;
+            tree[seq] = 1;
+        }
+        nextSeq = seq;
+
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void treeAdd(int seq, int delta) {
+        for (int i = seq + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int treePrefix(int seq) {
+        int sum = 0;
+        for (int i = seq + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
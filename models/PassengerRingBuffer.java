@@ -0,0 +1,75 @@
+package models;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Preallocated, bounded multi-producer / single-consumer ring of passengers.
+// Producers claim a slot with a CAS on the tail counter; each slot carries a
+// sequence number that tells producers when it is free and the consumer when it
+// is published. offer never blocks and nothing is allocated per passenger.
+public class PassengerRingBuffer {
+
+    private final Passenger[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only touched by the single consumer
+    private long head;
+
+    public PassengerRingBuffer(int minCapacity) {
+        if (minCapacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive: " + minCapacity);
+        }
+        int capacity = Integer.highestOneBit(minCapacity);
+        if (capacity < minCapacity) {
+            capacity <<= 1;
+        }
+        this.slots = new Passenger[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // Publishes a passenger; returns false immediately if the ring is full
+    public boolean offer(Passenger p) {
+        if (p == null) {
+            throw new NullPointerException("passenger");
+        }
+        while (true) {
+            long pos = tail.get();
+            int index = (int) (pos & mask);
+            long diff = sequences.getAcquire(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots[index] = p;
+                    sequences.setRelease(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // Another producer claimed this slot first; retry with the new tail
+        }
+    }
+
+    // Takes the oldest published passenger, or null if none (single consumer only)
+    public Passenger poll() {
+        int index = (int) (head & mask);
+        if (sequences.getAcquire(index) != head + 1) {
+            return null;
+        }
+        Passenger p = slots[index];
+        slots[index] = null;
+        sequences.setRelease(index, head + mask + 1);
+        head++;
+        return p;
+    }
+
+    // Number of slots in the ring
+    public int capacity() {
+        return mask + 1;
+    }
+}
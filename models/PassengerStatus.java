@@ -0,0 +1,88 @@
+package models;
+
+// Point-in-time view of one passenger: which stage they are in, where they
+// stand in that stage's queue and roughly how long until they leave it.
+public final class PassengerStatus {
+
+    public enum Stage {
+        TICKET_AREA, ASSIGN_AREA, BOARDED, NOT_FOUND
+    }
+
+    // Marker for an ETA that cannot be estimated yet (no service history)
+    public static final long UNKNOWN_WAIT = -1L;
+
+    private final int passengerId;
+    private final Stage stage;
+    private final int position;
+    private final int queueSize;
+    private final long estimatedWaitSeconds;
+
+    public PassengerStatus(int passengerId, Stage stage, int position, int queueSize, long estimatedWaitSeconds) {
+        this.passengerId = passengerId;
+        this.stage = stage;
+        this.position = position;
+        this.queueSize = queueSize;
+        this.estimatedWaitSeconds = estimatedWaitSeconds;
+    }
+
+    public int getPassengerId() {
+        return passengerId;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    // 1-based position within the current queue, or -1 outside the queues
+    public int getPosition() {
+        return position;
+    }
+
+    // Size of the current queue, or 0 outside the queues
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    // Estimated seconds until the passenger leaves the current queue, or UNKNOWN_WAIT
+    public long getEstimatedWaitSeconds() {
+        return estimatedWaitSeconds;
+    }
+
+    public boolean isQueued() {
+        return stage == Stage.TICKET_AREA || stage == Stage.ASSIGN_AREA;
+    }
+
+    // True once nothing about this passenger can change any more
+    public boolean isFinal() {
+        return stage == Stage.BOARDED || stage == Stage.NOT_FOUND;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PassengerStatus)) {
+            return false;
+        }
+        PassengerStatus other = (PassengerStatus) o;
+        return passengerId == other.passengerId && stage == other.stage && position == other.position
+                && queueSize == other.queueSize && estimatedWaitSeconds == other.estimatedWaitSeconds;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = passengerId;
+        result = 31 * result + stage.hashCode();
+        result = 31 * result + position;
+        result = 31 * result + queueSize;
+        return 31 * result + Long.hashCode(estimatedWaitSeconds);
+    }
+
+    @Override
+    public String toString() {
+        return "Passenger " + passengerId + ": " + stage
+                + (isQueued() ? " #" + position + " of " + queueSize : "")
+                + (estimatedWaitSeconds >= 0 ? " (~" + estimatedWaitSeconds + "s)" : "");
+    }
+}
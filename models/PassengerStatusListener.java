@@ -0,0 +1,8 @@
+package models;
+
+// Receives status pushes for one passenger (see TransitQManager.subscribeToStatus).
+// Called on the thread that made the change, like TransitQListener; Swing
+// views should hand the update to the event dispatch thread.
+public interface PassengerStatusListener {
+    void onStatusChanged(PassengerStatus status);
+}
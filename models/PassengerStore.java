@@ -0,0 +1,330 @@
+package models;
+
+import java.util.Arrays;
+
+// Struct-of-arrays home for queued passengers. Each passenger in a queue
+// occupies one slot, and every field of it lives in a parallel column: the
+// name reference, the destination / payment method / ticket codes, the
+// amount, the paid flag, the text columns for input that has no code (null
+// in almost every slot) and the stage (PassengerLocation ordinal), next to
+// the link and sequence columns PassengerQueue threads its lists through.
+// No Passenger object is kept: offer copies the fields in, and every
+// passenger() / get() call builds a new Passenger copy from them, so edits to
+// a copy only stick once written back with update(). The manager's hot loops
+// (ticketing, verification, position lookup) read single fields through the
+// slot accessors instead and build a copy only at the public API boundary.
+// Released slots go on a free list and are reused, and IDs map to slots
+// through an open-addressing int map. Not thread-safe: the manager only
+// touches it under its stateLock.
+public class PassengerStore {
+
+    // Stage of a slot that is not in use
+    static final byte FREE = -1;
+    static final int NO_SLOT = -1;
+
+    private static final int INITIAL_SLOTS = 64;
+
+    private int[] ids = new int[INITIAL_SLOTS];
+    private String[] names = new String[INITIAL_SLOTS];
+    private int[] destinationCodes = new int[INITIAL_SLOTS];
+    private int[] paymentMethodCodes = new int[INITIAL_SLOTS];
+    private short[] ticketCodes = new short[INITIAL_SLOTS];
+    // Centavos paid, or Money.INVALID
+    private long[] amounts = new long[INITIAL_SLOTS];
+    // Text kept for input without a code; null in almost every slot
+    private String[] unpooledDestinations = new String[INITIAL_SLOTS];
+    private String[] unknownTicketTypes = new String[INITIAL_SLOTS];
+    private String[] invalidAmountTexts = new String[INITIAL_SLOTS];
+    private boolean[] paid = new boolean[INITIAL_SLOTS];
+    private byte[] stages = newStages(INITIAL_SLOTS);
+
+    // Queue columns, owned by PassengerQueue
+    int[] next = new int[INITIAL_SLOTS];
+    int[] prev = new int[INITIAL_SLOTS];
+    int[] seqs = new int[INITIAL_SLOTS];
+
+    private final SlotMap slotsById = new SlotMap();
+    // Free slots are chained through next[]
+    private int freeHead = NO_SLOT;
+    // Slots below this have been used at least once
+    private int highWater;
+    private int size;
+
+    // Takes a slot for p in the given stage; NO_SLOT if its ID is already stored
+    int allocate(Passenger p, PassengerLocation stage) {
+        int id = p.getPassengerId();
+        if (slotsById.get(id) != NO_SLOT) {
+            return NO_SLOT;
+        }
+        int slot;
+        if (freeHead != NO_SLOT) {
+            slot = freeHead;
+            freeHead = next[slot];
+        } else {
+            if (highWater == ids.length) {
+                grow();
+            }
+            slot = highWater++;
+        }
+        ids[slot] = id;
+        write(slot, p);
+        stages[slot] = (byte) stage.ordinal();
+        next[slot] = NO_SLOT;
+        prev[slot] = NO_SLOT;
+        slotsById.put(id, slot);
+        size++;
+        return slot;
+    }
+
+    // Returns a slot to the free list
+    void release(int slot) {
+        slotsById.remove(ids[slot]);
+        names[slot] = null;
+        unpooledDestinations[slot] = null;
+        unknownTicketTypes[slot] = null;
+        invalidAmountTexts[slot] = null;
+        stages[slot] = FREE;
+        prev[slot] = NO_SLOT;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    // Slot holding this passenger ID, or NO_SLOT
+    int slotOf(int passengerId) {
+        return slotsById.get(passengerId);
+    }
+
+    // Builds a Passenger from the slot's columns (allocates; API boundary only)
+    Passenger passenger(int slot) {
+        return new Passenger(ids[slot], names[slot], destinationCodes[slot], unpooledDestinations[slot],
+                ticketCodes[slot], unknownTicketTypes[slot], paymentMethodCodes[slot], amounts[slot],
+                invalidAmountTexts[slot], paid[slot]);
+    }
+
+    // --- Slot accessors (no allocation) ---
+
+    int idAt(int slot) {
+        return ids[slot];
+    }
+
+    int ticketCodeAt(int slot) {
+        return ticketCodes[slot];
+    }
+
+    // Centavos paid, or Money.INVALID if the amount could not be parsed
+    long amountAt(int slot) {
+        return amounts[slot];
+    }
+
+    void setPaidAt(int slot, boolean isPaid) {
+        paid[slot] = isPaid;
+    }
+
+    byte stageAt(int slot) {
+        return stages[slot];
+    }
+
+    // Moves a slot to another queue's stage, keeping its fields
+    void setStageAt(int slot, PassengerLocation stage) {
+        stages[slot] = (byte) stage.ordinal();
+    }
+
+    // Copy of the queued passenger with this ID, or null
+    public Passenger get(int passengerId) {
+        int slot = slotsById.get(passengerId);
+        return slot == NO_SLOT ? null : passenger(slot);
+    }
+
+    // Name of the queued passenger with this ID, or null
+    public String nameOf(int passengerId) {
+        int slot = slotsById.get(passengerId);
+        return slot == NO_SLOT ? null : names[slot];
+    }
+
+    // Whether the queued passenger with this ID is headed where p is; pooled
+    // destinations compare by code, the text is only read for unpooled ones
+    public boolean hasDestinationOf(int passengerId, Passenger p) {
+        int slot = slotsById.get(passengerId);
+        if (slot == NO_SLOT || destinationCodes[slot] != p.getDestinationCode()) {
+            return false;
+        }
+        return destinationCodes[slot] != StringPool.UNPOOLED
+                || unpooledDestinations[slot].equals(p.getUnpooledDestination());
+    }
+
+    public boolean contains(int passengerId) {
+        return slotsById.get(passengerId) != NO_SLOT;
+    }
+
+    // Area the passenger is queued in, or null if not queued
+    public PassengerLocation locationOf(int passengerId) {
+        int slot = slotsById.get(passengerId);
+        return slot == NO_SLOT ? null : PassengerLocation.values()[stages[slot]];
+    }
+
+    // Writes an edited copy back to its slot; false if the ID is not stored
+    public boolean update(Passenger p) {
+        int slot = slotsById.get(p.getPassengerId());
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        write(slot, p);
+        return true;
+    }
+
+    // Fares owed by passengers in a stage, summed over the ticket code column
+    public long faresDueCentavos(PassengerLocation stage, FareTable fares) {
+        byte wanted = (byte) stage.ordinal();
+        long total = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (stages[slot] == wanted) {
+                total += fares.getFare(ticketCodes[slot]);
+            }
+        }
+        return total;
+    }
+
+    // Cash offered by passengers in a stage, summed over the amount column
+    public long cashOfferedCentavos(PassengerLocation stage) {
+        byte wanted = (byte) stage.ordinal();
+        long total = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (stages[slot] == wanted && amounts[slot] >= 0) {
+                total += amounts[slot];
+            }
+        }
+        return total;
+    }
+
+    // Passengers stored across all queues
+    public int size() {
+        return size;
+    }
+
+    // Copies the passenger's fields (not its ID or stage) into a slot
+    private void write(int slot, Passenger p) {
+        names[slot] = p.getName();
+        destinationCodes[slot] = p.getDestinationCode();
+        paymentMethodCodes[slot] = p.getPaymentMethodCode();
+        ticketCodes[slot] = (short) p.getTicketCode();
+        amounts[slot] = p.getAmountCentavos();
+        unpooledDestinations[slot] = p.getUnpooledDestination();
+        unknownTicketTypes[slot] = p.getUnknownTicketType();
+        invalidAmountTexts[slot] = p.getInvalidAmountText();
+        paid[slot] = p.isPaid();
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        destinationCodes = Arrays.copyOf(destinationCodes, capacity);
+        paymentMethodCodes = Arrays.copyOf(paymentMethodCodes, capacity);
+        ticketCodes = Arrays.copyOf(ticketCodes, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        unpooledDestinations = Arrays.copyOf(unpooledDestinations, capacity);
+        unknownTicketTypes = Arrays.copyOf(unknownTicketTypes, capacity);
+        invalidAmountTexts = Arrays.copyOf(invalidAmountTexts, capacity);
+        paid = Arrays.copyOf(paid, capacity);
+        byte[] grownStages = newStages(capacity);
+        System.arraycopy(stages, 0, grownStages, 0, stages.length);
+        stages = grownStages;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        seqs = Arrays.copyOf(seqs, capacity);
+    }
+
+    private static byte[] newStages(int capacity) {
+        byte[] stages = new byte[capacity];
+        Arrays.fill(stages, FREE);
+        return stages;
+    }
+
+    // Passenger ID -> slot, open addressing with linear probing. Removal
+    // shifts the following run back, so there are no tombstones.
+    private static final class SlotMap {
+        private static final int EMPTY = Integer.MIN_VALUE;
+
+        private int[] keys = newKeys(128);
+        private int[] values = new int[128];
+        private int count;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                int k = keys[i];
+                if (k == key) {
+                    return values[i];
+                }
+                if (k == EMPTY) {
+                    return NO_SLOT;
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            if ((count + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) {
+                count++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void remove(int key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = EMPTY;
+            count--;
+            // Move back any entry of the run that can no longer be reached
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!reachable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    keys[j] = EMPTY;
+                    i = j;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package models;
+
+// One payment verification result. Stored as plain fields so recording a
+// verification allocates a single small object and formats nothing; the text
+// form is produced only when a report or the spill file asks for it.
+public final class PaymentVerification {
+
+    public enum Status {
+        VERIFIED, INSUFFICIENT, INVALID_AMOUNT_FORMAT
+    }
+
+    private final int passengerId;
+    private final Status status;
+    private final long paidCentavos;
+    private final long requiredCentavos;
+    private final long timestampMillis;
+
+    public PaymentVerification(int passengerId, Status status, long paidCentavos, long requiredCentavos,
+            long timestampMillis) {
+        this.passengerId = passengerId;
+        this.status = status;
+        this.paidCentavos = paidCentavos;
+        this.requiredCentavos = requiredCentavos;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public int getPassengerId() {
+        return passengerId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isVerified() {
+        return status == Status.VERIFIED;
+    }
+
+    // Amount paid in centavos, or Money.INVALID if it could not be parsed
+    public long getPaidCentavos() {
+        return paidCentavos;
+    }
+
+    public long getRequiredCentavos() {
+        return requiredCentavos;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    // Appends the report form, e.g. "VERIFIED (Paid: ₱50.00, Required: ₱50.00)"
+    public StringBuilder appendTo(StringBuilder sb) {
+        sb.append(status.name());
+        if (status != Status.INVALID_AMOUNT_FORMAT) {
+            sb.append(" (Paid: ₱");
+            Money.appendTo(sb, paidCentavos).append(", Required: ₱");
+            Money.appendTo(sb, requiredCentavos).append(')');
+        }
+        return sb;
+    }
+
+    // Appends a tab-separated record: timestamp, ID, status, paid, required
+    public StringBuilder appendRecordTo(StringBuilder sb) {
+        return sb.append(timestampMillis).append('\t')
+                .append(passengerId).append('\t')
+                .append(status.name()).append('\t')
+                .append(paidCentavos).append('\t')
+                .append(requiredCentavos);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(48)).toString();
+    }
+}
@@ -0,0 +1,63 @@
+package models;
+
+import java.util.Arrays;
+
+// Fixed-capacity ring that keeps the last N items added. add is O(1) and
+// overwrites the oldest entry once full, so memory stays flat no matter how
+// long the system runs. Not thread-safe; callers hold the manager's stateLock.
+public class RecentRing<T> {
+
+    private final Object[] items;
+    private int next;
+    private int size;
+
+    public RecentRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive: " + capacity);
+        }
+        this.items = new Object[capacity];
+    }
+
+    // Appends an item; returns the evicted oldest item when full, else null
+    @SuppressWarnings("unchecked")
+    public T add(T item) {
+        T evicted = size == items.length ? (T) items[next] : null;
+        items[next] = item;
+        next = (next + 1) % items.length;
+        if (size < items.length) {
+            size++;
+        }
+        return evicted;
+    }
+
+    // Returns the i-th most recent item (0 = newest)
+    @SuppressWarnings("unchecked")
+    public T getRecent(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+        int index = next - 1 - i;
+        if (index < 0) {
+            index += items.length;
+        }
+        return (T) items[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(items, null);
+        next = 0;
+        size = 0;
+    }
+}
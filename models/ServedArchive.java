@@ -0,0 +1,379 @@
+package models;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Append-only on-disk record of every boarded passenger, kept as memory-mapped
+// fixed-width columns so history queries scan the files directly instead of
+// loading rows onto the heap. The archive is a directory holding:
+//   id.col        int   passenger ID
+//   boarded.col   long  boarded-at epoch millis
+//   bus.col       int   bus name code
+//   dest.col      int   destination code
+//   ticket.col    int   ticket type code (the fare table's canonical name)
+//   centavos.col  long  amount paid in centavos
+//   strings.dict  string dictionary behind every code column
+//   served.meta   [magic][row count]
+//   archive.lock  held by the manager writing the archive
+// Columns are mapped in chunks of CHUNK_ROWS rows and grow a chunk at a time.
+// The row count is written after the row's columns, so readers only ever see
+// complete rows. Appends come from the manager under its stateLock; queries
+// may run on any thread without it. The directory is locked while open, so a
+// second manager pointed at it runs without an archive instead of writing
+// into the same columns.
+public class ServedArchive {
+
+    // Archive directory; archiving is off unless this is set (and not "none")
+    public static final String PATH_PROPERTY = "transitq.servedArchive";
+
+    private static final int META_MAGIC = 0x54514131; // "TQA1"
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    private final Path path;
+    private boolean enabled;
+    private boolean opened;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+    private MappedByteBuffer meta;
+    private StringDictionary strings;
+    private Column ids;
+    private Column boardedAt;
+    private Column busCodes;
+    private Column destinationCodes;
+    private Column ticketCodes;
+    private Column centavos;
+    private volatile long rows;
+    // StringPool / FareTable code -> strings.dict code, filled in as codes are
+    // first seen
+    private final CodeCache destinationCache = new CodeCache();
+    private final CodeCache ticketTypeCache = new CodeCache();
+
+    public ServedArchive(Path path) {
+        this.path = path;
+        this.enabled = path != null;
+    }
+
+    // Creates the archive at PATH_PROPERTY; archiving is opt-in, so an unset
+    // property gives a disabled archive
+    public static ServedArchive fromSystemProperties() {
+        String value = System.getProperty(PATH_PROPERTY, "none");
+        if (value.isBlank() || value.equalsIgnoreCase("none")) {
+            return new ServedArchive(null);
+        }
+        return new ServedArchive(Paths.get(value));
+    }
+
+    // Appends one boarding batch; disables archiving on I/O failure
+    public void append(List<Passenger> boarded, String busName, long boardedAtMillis) {
+        if (!enabled || boarded.isEmpty() || !ensureOpen()) {
+            return;
+        }
+        try {
+            int busCode = strings.codeOf(busName);
+            long row = rows;
+            for (Passenger p : boarded) {
+                ids.ensureRow(row);
+                boardedAt.ensureRow(row);
+                busCodes.ensureRow(row);
+                destinationCodes.ensureRow(row);
+                ticketCodes.ensureRow(row);
+                centavos.ensureRow(row);
+
+                ids.putInt(row, p.getPassengerId());
+                boardedAt.putLong(row, boardedAtMillis);
+                busCodes.putInt(row, busCode);
+                destinationCodes.putInt(row, destinationCache.archiveCode(p.getDestinationCode(),
+                        p.getDestination()));
+                // Canonical fare table name, so "VIP" and "vip " archive alike
+                int ticketCode = p.getTicketCode();
+                ticketCodes.putInt(row, ticketTypeCache.archiveCode(ticketCode,
+                        FareTable.active().getName(ticketCode)));
+                centavos.putLong(row, p.getAmountCentavos());
+                row++;
+            }
+            // Publish the batch only once every column holds it
+            meta.putLong(4, row);
+            rows = row;
+        } catch (IOException e) {
+            System.err.println("Error writing served archive, archiving disabled: " + e.getMessage());
+            enabled = false;
+            close();
+        }
+    }
+
+    // Boardings and revenue with boarded-at in [fromMillis, toMillis), by
+    // destination and ticket type. Scans the mapped columns, so the cost is
+    // the rows in the archive, not heap.
+    public ArchiveSummary summarize(long fromMillis, long toMillis) {
+        long rowCount = rows;
+        if (rowCount == 0 || strings == null) {
+            return new ArchiveSummary(fromMillis, toMillis, rowCount, 0, 0,
+                    new LinkedHashMap<>(), new LinkedHashMap<>());
+        }
+        // Every code in a published row is below the dictionary size
+        int codes = strings.size();
+        long[] destinationCounts = new long[codes];
+        long[] destinationRevenue = new long[codes];
+        long[] ticketCounts = new long[codes];
+        long[] ticketRevenue = new long[codes];
+        long boardedCount = 0;
+        long revenue = 0;
+
+        MappedByteBuffer[] timeChunks = boardedAt.chunks;
+        MappedByteBuffer[] destinationChunks = destinationCodes.chunks;
+        MappedByteBuffer[] ticketChunks = ticketCodes.chunks;
+        MappedByteBuffer[] amountChunks = centavos.chunks;
+        for (int chunk = 0; (long) chunk << CHUNK_SHIFT < rowCount; chunk++) {
+            int inChunk = (int) Math.min(CHUNK_ROWS, rowCount - ((long) chunk << CHUNK_SHIFT));
+            MappedByteBuffer times = timeChunks[chunk];
+            MappedByteBuffer destinations = destinationChunks[chunk];
+            MappedByteBuffer tickets = ticketChunks[chunk];
+            MappedByteBuffer amounts = amountChunks[chunk];
+            for (int i = 0; i < inChunk; i++) {
+                long time = times.getLong(i << 3);
+                if (time < fromMillis || time >= toMillis) {
+                    continue;
+                }
+                long amount = Math.max(0L, amounts.getLong(i << 3));
+                int destination = destinations.getInt(i << 2);
+                int ticket = tickets.getInt(i << 2);
+                boardedCount++;
+                revenue += amount;
+                destinationCounts[destination]++;
+                destinationRevenue[destination] += amount;
+                ticketCounts[ticket]++;
+                ticketRevenue[ticket] += amount;
+            }
+        }
+        return new ArchiveSummary(fromMillis, toMillis, rowCount, boardedCount, revenue,
+                totalsByRevenue(destinationCounts, destinationRevenue),
+                totalsByRevenue(ticketCounts, ticketRevenue));
+    }
+
+    // Opens or creates the archive files so queries can run before the first
+    // append; false if archiving is off or the files cannot be opened
+    public boolean open() {
+        return enabled && ensureOpen();
+    }
+
+    // Rows in the archive
+    public long size() {
+        return rows;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Writes mapped pages back to disk and releases the files; later appends
+    // are dropped
+    public void close() {
+        enabled = false;
+        for (Column column : new Column[] { ids, boardedAt, busCodes, destinationCodes, ticketCodes, centavos }) {
+            if (column != null) {
+                column.close();
+            }
+        }
+        if (meta != null) {
+            meta.force();
+        }
+        if (strings != null) {
+            strings.close();
+        }
+        try {
+            if (directoryLock != null) {
+                directoryLock.release();
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException ignored) {
+            // lock goes away with the process anyway
+        }
+        directoryLock = null;
+        lockChannel = null;
+    }
+
+    // Opens or creates the archive files on first use
+    private boolean ensureOpen() {
+        if (opened) {
+            return true;
+        }
+        try {
+            Files.createDirectories(path);
+            if (!lockDirectory()) {
+                enabled = false;
+                return false;
+            }
+            strings = StringDictionary.open(path.resolve("strings.dict"));
+            try (FileChannel metaChannel = FileChannel.open(path.resolve("served.meta"), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean fresh = metaChannel.size() == 0;
+                meta = metaChannel.map(FileChannel.MapMode.READ_WRITE, 0, 12);
+                if (fresh) {
+                    meta.putInt(0, META_MAGIC).putLong(4, 0L);
+                } else if (meta.getInt(0) != META_MAGIC) {
+                    throw new IOException("served.meta is not a TransitQ archive");
+                }
+            }
+            ids = new Column(path.resolve("id.col"), 4);
+            boardedAt = new Column(path.resolve("boarded.col"), 8);
+            busCodes = new Column(path.resolve("bus.col"), 4);
+            destinationCodes = new Column(path.resolve("dest.col"), 4);
+            ticketCodes = new Column(path.resolve("ticket.col"), 4);
+            centavos = new Column(path.resolve("centavos.col"), 8);
+
+            long stored = meta.getLong(4);
+            for (Column column : new Column[] { ids, boardedAt, busCodes, destinationCodes, ticketCodes, centavos }) {
+                column.mapExisting();
+                stored = Math.min(stored, column.capacityRows());
+            }
+            rows = stored;
+            opened = true;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error opening served archive, archiving disabled: " + e.getMessage());
+            enabled = false;
+            close();
+            return false;
+        }
+    }
+
+    // Takes an exclusive lock on the directory so two managers never share it
+    private boolean lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(path.resolve("archive.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            System.err.println("Served archive " + path + " is in use by another manager, archiving disabled.");
+            lockChannel.close();
+            lockChannel = null;
+            return false;
+        }
+        return true;
+    }
+
+    // Per-code totals with their dictionary strings, highest revenue first
+    private Map<String, ArchiveSummary.Total> totalsByRevenue(long[] counts, long[] revenue) {
+        List<Integer> used = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                used.add(code);
+            }
+        }
+        used.sort((a, b) -> Long.compare(revenue[b], revenue[a]));
+        Map<String, ArchiveSummary.Total> totals = new LinkedHashMap<>();
+        for (int code : used) {
+            totals.put(strings.get(code), new ArchiveSummary.Total(counts[code], revenue[code]));
+        }
+        return totals;
+    }
+
+    // Maps a passenger's StringPool or FareTable code to its code in
+    // strings.dict, so an append only hashes a string the first time the
+    // archive sees it; values without a pool code are looked up every time
+    private final class CodeCache {
+        // archive code + 1 per source code; 0 means not looked up yet
+        private int[] codes = new int[16];
+
+        int archiveCode(int poolCode, String value) throws IOException {
+            if (poolCode == StringPool.NONE || poolCode == StringPool.UNPOOLED) {
+                return strings.codeOf(poolCode == StringPool.NONE ? null : value);
+            }
+            if (poolCode >= codes.length) {
+                int[] grown = new int[Math.max(codes.length * 2, poolCode + 1)];
+                System.arraycopy(codes, 0, grown, 0, codes.length);
+                codes = grown;
+            }
+            if (codes[poolCode] == 0) {
+                codes[poolCode] = strings.codeOf(value) + 1;
+            }
+            return codes[poolCode] - 1;
+        }
+    }
+
+    // One fixed-width column file, mapped CHUNK_ROWS rows at a time
+    private static final class Column {
+        private final FileChannel channel;
+        private final int width;
+        // Replaced, never modified in place, so readers can hold a copy
+        private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+        Column(Path file, int width) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.width = width;
+        }
+
+        // Maps the chunks already in the file
+        void mapExisting() throws IOException {
+            long chunkBytes = (long) CHUNK_ROWS * width;
+            long fullChunks = channel.size() / chunkBytes;
+            for (long chunk = 0; chunk < fullChunks; chunk++) {
+                addChunk();
+            }
+        }
+
+        long capacityRows() {
+            return (long) chunks.length << CHUNK_SHIFT;
+        }
+
+        // Maps further chunks (growing the file) until row fits
+        void ensureRow(long row) throws IOException {
+            while ((row >>> CHUNK_SHIFT) >= chunks.length) {
+                addChunk();
+            }
+        }
+
+        void putInt(long row, int value) {
+            chunks[(int) (row >>> CHUNK_SHIFT)].putInt(((int) row & CHUNK_MASK) * width, value);
+        }
+
+        void putLong(long row, long value) {
+            chunks[(int) (row >>> CHUNK_SHIFT)].putLong(((int) row & CHUNK_MASK) * width, value);
+        }
+
+        void close() {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // mapped pages stay valid; nothing more to release
+            }
+        }
+
+        private void addChunk() throws IOException {
+            MappedByteBuffer[] current = chunks;
+            long chunkBytes = (long) CHUNK_ROWS * width;
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, current.length * chunkBytes,
+                    chunkBytes);
+            MappedByteBuffer[] grown = new MappedByteBuffer[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = mapped;
+            chunks = grown;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package models;
+
+// Exponentially weighted moving average of the time between passengers being
+// served at one stage. Idle gaps longer than MAX_INTERVAL_NANOS are clipped
+// so a quiet period does not inflate the estimate for the next rush. Callers
+// hold the manager's stateLock.
+public class ServiceRateEstimator {
+
+    private static final double ALPHA = 0.2;
+    private static final long MAX_INTERVAL_NANOS = 5L * 60 * 1_000_000_000L;
+
+    // System.nanoTime() may be negative, so the first sample is flagged
+    // rather than marked with a negative time
+    private boolean hasLast;
+    private long lastServiceNanos;
+    private double averageIntervalNanos = -1.0;
+
+    // Records that count passengers were served just now
+    public void recordServed(int count) {
+        recordServed(count, System.nanoTime());
+    }
+
+    void recordServed(int count, long nowNanos) {
+        if (count <= 0) {
+            return;
+        }
+        if (hasLast) {
+            long elapsed = Math.min(nowNanos - lastServiceNanos, MAX_INTERVAL_NANOS);
+            double perPassenger = (double) elapsed / count;
+            averageIntervalNanos = averageIntervalNanos < 0
+                    ? perPassenger
+                    : ALPHA * perPassenger + (1 - ALPHA) * averageIntervalNanos;
+        }
+        lastServiceNanos = nowNanos;
+        hasLast = true;
+    }
+
+    // Estimated seconds until the passenger at this 1-based position is served
+    public long estimateWaitSeconds(int position) {
+        if (averageIntervalNanos < 0 || position <= 0) {
+            return PassengerStatus.UNKNOWN_WAIT;
+        }
+        return Math.round(position * averageIntervalNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,166 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Compact binary snapshots of the manager state, kept next to the journal.
+// Each file is snapshot-<LSN>.snap: [magic][LSN][payload length][payload]
+// [CRC32 of payload], where LSN is the last journal record the state
+// includes. Files are written to a temp name, synced and renamed, so a crash
+// never leaves a half-written snapshot under a real name. The newest and one
+// older snapshot are kept; the journal is cut back to the older one, so a
+// snapshot that fails its CRC can still fall back a step.
+public class SnapshotStore {
+
+    // Seconds between periodic snapshots; 0 turns them off
+    public static final String INTERVAL_PROPERTY = "transitq.snapshot.intervalSeconds";
+    public static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+    private static final int SNAPSHOT_MAGIC = 0x54515331; // "TQS1"
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    // A snapshot read back from disk
+    public static final class Loaded {
+        private final long lsn;
+        private final byte[] state;
+
+        Loaded(long lsn, byte[] state) {
+            this.lsn = lsn;
+            this.state = state;
+        }
+
+        // Last journal record the state includes
+        public long getLsn() {
+            return lsn;
+        }
+
+        public byte[] getState() {
+            return state;
+        }
+    }
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    // Newest snapshot older than beforeLsn whose checksum is intact, or null
+    // if there is none. Pass Long.MAX_VALUE for the newest overall and the
+    // previous result's LSN to fall back a step.
+    public Loaded loadNewest(long beforeLsn) {
+        try {
+            List<Path> snapshots = listSnapshots();
+            for (int i = snapshots.size() - 1; i >= 0; i--) {
+                if (lsnOf(snapshots.get(i)) >= beforeLsn) {
+                    continue;
+                }
+                Loaded loaded = read(snapshots.get(i));
+                if (loaded != null) {
+                    return loaded;
+                }
+                System.err.println("Snapshot " + snapshots.get(i).getFileName() + " is damaged, trying an older one.");
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading snapshots: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // Writes a snapshot of the state as of lsn and drops all but the previous
+    // one. Returns the LSN the journal may be truncated to (the previous
+    // snapshot's, or 0 to keep everything).
+    public long write(long lsn, byte[] state) throws IOException {
+        Path target = snapshotPath(lsn);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        crc.update(state, 0, state.length);
+        ByteBuffer header = ByteBuffer.allocate(4 + 8 + 4).putInt(SNAPSHOT_MAGIC).putLong(lsn).putInt(state.length);
+        header.flip();
+        ByteBuffer trailer = ByteBuffer.allocate(4).putInt((int) crc.getValue());
+        trailer.flip();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] parts = { header, ByteBuffer.wrap(state), trailer };
+            while (trailer.hasRemaining()) {
+                channel.write(parts);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> snapshots = listSnapshots();
+        long keepFrom = 0;
+        int keep = Math.min(2, snapshots.size());
+        if (keep == 2) {
+            keepFrom = lsnOf(snapshots.get(snapshots.size() - 2));
+        }
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return keepFrom;
+    }
+
+    // Reads and checks one snapshot file; null if it is damaged
+    private Loaded read(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 4 + 8 + 4 + 4) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != SNAPSHOT_MAGIC) {
+            return null;
+        }
+        long lsn = buffer.getLong();
+        int length = buffer.getInt();
+        if (length < 0 || length != bytes.length - 4 - 8 - 4 - 4) {
+            return null;
+        }
+        byte[] state = new byte[length];
+        buffer.get(state);
+        CRC32 crc = new CRC32();
+        crc.update(state, 0, length);
+        if ((int) crc.getValue() != buffer.getInt()) {
+            return null;
+        }
+        return new Loaded(lsn, state);
+    }
+
+    // Snapshot files sorted by LSN (names are zero-padded)
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                snapshots.add(file);
+            }
+        }
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+
+    private static long lsnOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private Path snapshotPath(long lsn) {
+        String digits = Long.toString(lsn);
+        StringBuilder name = new StringBuilder(PREFIX);
+        for (int i = digits.length(); i < 20; i++) {
+            name.append('0');
+        }
+        return directory.resolve(name.append(digits).append(SUFFIX).toString());
+    }
+}
@@ -0,0 +1,117 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Append-only string dictionary backed by a side file: each distinct string
+// gets the next int code, and the file holds [length][UTF-8 bytes] entries in
+// code order, so codes stay stable across restarts. Lets the served archive
+// store fixed-width codes instead of strings. Adds come from one writer;
+// lookups may come from any thread.
+public class StringDictionary {
+
+    private static final int DICTIONARY_MAGIC = 0x54514431; // "TQD1"
+
+    private final Path path;
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private FileChannel channel;
+
+    private StringDictionary(Path path) {
+        this.path = path;
+    }
+
+    // Opens the dictionary file, creating it if needed. A torn last entry
+    // (crash mid-append) is cut off.
+    public static StringDictionary open(Path path) throws IOException {
+        StringDictionary dictionary = new StringDictionary(path);
+        dictionary.load();
+        return dictionary;
+    }
+
+    // Code for value, appending it to the file if it is new
+    public synchronized int codeOf(String value) throws IOException {
+        String key = value == null ? "" : value;
+        Integer code = codes.get(key);
+        if (code != null) {
+            return code;
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(4 + bytes.length).putInt(bytes.length).put(bytes);
+        entry.flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        int added = values.size();
+        values.add(key);
+        codes.put(key, added);
+        return added;
+    }
+
+    // String for a code, or null if the code is unknown
+    public synchronized String get(int code) {
+        return code >= 0 && code < values.size() ? values.get(code) : null;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    public synchronized void close() {
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing dictionary " + path.getFileName() + ": " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    // Reads every complete entry and positions the channel for appends
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < 4) {
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(DICTIONARY_MAGIC);
+            header.flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.position(4);
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.getInt() != DICTIONARY_MAGIC) {
+            channel.close();
+            throw new IOException(path.getFileName() + " is not a TransitQ dictionary");
+        }
+        while (data.remaining() >= 4) {
+            int start = data.position();
+            int length = data.getInt();
+            if (length < 0 || length > data.remaining()) {
+                data.position(start);
+                break;
+            }
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            codes.put(value, values.size());
+            values.add(value);
+        }
+        if (data.position() < size) {
+            channel.truncate(data.position());
+        }
+        channel.position(data.position());
+    }
+}
@@ -0,0 +1,80 @@
+package models;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interning dictionary for the low-cardinality passenger fields. Each distinct
+// string gets a small int code for the life of the process, so a passenger
+// stores codes instead of its own String references and grouping by
+// destination is an int comparison. Codes may be handed out from any kiosk
+// thread; lookups are a plain array read.
+//
+// The pools are process-global and never shrink, so codes stay valid for
+// passengers, snapshots and the archive cache. A pool fed from free text is
+// capped instead: once it holds its limit of distinct values, new ones get
+// UNPOOLED and the caller keeps the text itself, so typos and one-off
+// destinations cost their passenger a String rather than growing the pool
+// for the rest of the run. Payment methods come from a fixed list and are
+// not capped.
+public final class StringPool {
+
+    // Code stored for a null string
+    public static final int NONE = -1;
+    // Code for a value a full pool refused; the caller keeps the text
+    public static final int UNPOOLED = -2;
+
+    // Distinct destinations pooled before new ones are kept as plain text
+    static final int DESTINATION_LIMIT = 1024;
+
+    public static final StringPool DESTINATIONS = new StringPool(DESTINATION_LIMIT);
+    public static final StringPool PAYMENT_METHODS = new StringPool(Integer.MAX_VALUE);
+
+    private final int limit;
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    // Replaced when it grows; written before the code is published in codes
+    private volatile String[] values = new String[16];
+    private int size;
+
+    private StringPool(int limit) {
+        this.limit = limit;
+    }
+
+    // Code for value, adding it on first use (NONE for null, UNPOOLED if the
+    // pool is full and value is not in it)
+    public int codeOf(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    // String for a code (null for NONE and UNPOOLED)
+    public String get(int code) {
+        return code < 0 ? null : values[code];
+    }
+
+    // Number of codes handed out so far; every code is below it
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == limit) {
+            return UNPOOLED;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            String[] grown = new String[current.length * 2];
+            System.arraycopy(current, 0, grown, 0, size);
+            current = grown;
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+}
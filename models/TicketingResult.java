@@ -0,0 +1,48 @@
+package models;
+
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a batch ticketing call (processUpTo / processUntilAssignFull).
+// Accepted passengers stay queued in the manager's store, so only their IDs
+// are reported; rejected ones have left the system and are kept whole.
+public class TicketingResult {
+    private final int[] acceptedIds;
+    private final List<Passenger> rejectedPassengers;
+    private final String message;
+
+    public TicketingResult(int[] acceptedIds, List<Passenger> rejectedPassengers, String message) {
+        this.acceptedIds = acceptedIds;
+        this.rejectedPassengers = Collections.unmodifiableList(rejectedPassengers);
+        this.message = message;
+    }
+
+    // IDs of the passengers whose payment was verified and who moved to the
+    // assign area, in queue order
+    public int[] getAcceptedIds() {
+        return acceptedIds.clone();
+    }
+
+    public int getAcceptedCount() {
+        return acceptedIds.length;
+    }
+
+    // Passengers whose payment failed and who were removed from the system
+    public List<Passenger> getRejectedPassengers() {
+        return rejectedPassengers;
+    }
+
+    public int getProcessedCount() {
+        return acceptedIds.length + rejectedPassengers.size();
+    }
+
+    // Log line in the same format as the single-passenger operations
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
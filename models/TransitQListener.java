@@ -0,0 +1,49 @@
+package models;
+
+import java.util.List;
+
+// Receives domain events from TransitQManager. Every method has an empty
+// default, so a view overrides only the events it cares about.
+//
+// Events are delivered on the thread that made the change, after the manager
+// has released its stateLock and committed the change to the journal. An
+// operation's events arrive in the order its changes were made; events of
+// operations running on other threads may interleave with them. Because no
+// lock is held, listeners may call back into the manager (the passenger
+// handed over is a copy of its state when the event was raised). Listeners
+// should still return quickly; Swing views should hand the work to the event
+// dispatch thread with SwingUtilities.invokeLater.
+public interface TransitQListener {
+
+    // A passenger entered the ticket area
+    default void onPassengerEnqueued(Passenger passenger) {
+    }
+
+    // A passenger's payment was verified and they moved to the assign area
+    default void onPassengerVerified(Passenger passenger, PaymentVerification verification) {
+    }
+
+    // A passenger's payment failed verification and they left the system
+    default void onPassengerRejected(Passenger passenger, PaymentVerification verification) {
+    }
+
+    // One or more passengers boarded a bus, in queue order
+    default void onPassengersBoarded(String busName, List<Passenger> boarded, int busLoad, int busCapacity) {
+    }
+
+    // A passenger was removed by an operator
+    default void onPassengerRemoved(Passenger passenger, PassengerLocation fromLocation) {
+    }
+
+    // A passenger's details were edited by an operator
+    default void onPassengerUpdated(Passenger passenger) {
+    }
+
+    // A bus left with its passengers
+    default void onBusDeparted(String busName, int passengerCount) {
+    }
+
+    // A bus became the active bus for boarding
+    default void onBusAssigned(String busName) {
+    }
+}
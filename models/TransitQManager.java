@@ -1,14 +1,35 @@
 package models;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.LinkedHashMap;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 public class TransitQManager {
     // ====================================================================
@@ -19,6 +40,7 @@ public class TransitQManager {
     // sample data
     // initializeWithPredefinedPassengers() - Adds initial predefined passengers to
     // ticket area
+    // close() - Writes out the journal and releases it
 
     // ====================================================================
     // BUS ASSIGNMENT AND MANAGEMENT METHODS
@@ -27,6 +49,7 @@ public class TransitQManager {
     // getAvailableBuses() - Returns list of available (empty) buses
     // getAllSystemBuses() - Returns list of ALL buses in the system
     // getBusStatusReport() - Generates status report for all buses
+    // appendBusStatus(StringBuilder report) - Appends the bus status section
     // departBus() - Departs current bus and rotates bus queue
     // assignBus(String busName) - Assigns a bus to active status
     // addManualBus(String busName) - Adds a bus with custom name and fixed capacity
@@ -42,12 +65,44 @@ public class TransitQManager {
     // ====================================================================
     // PAYMENT VERIFICATION AND FINANCIAL METHODS
     // ====================================================================
-    // verifyPayment(Passenger passenger) - Verifies if passenger paid enough for
-    // their ticket type
-    // recordPayment(Passenger passenger) - Records payment in financial tracking
+    // verifyPayment(int id, int ticketCode, long amountPaid) - Verifies if a
+    // passenger paid enough for their ticket type and records the result in the
+    // bounded verification log
+    // ticketHead(long[] sold, long[] cash, List<Passenger> rejected) - Verifies
+    // the ticket area head from its store slot and moves it on
+    // tallyPayment(...) / applyPayments(long[] sold, long[] cash) - Batch a
+    // run of payments and update the financial counters once
+    // getFareTable() - Returns the fare table used for payment verification
     // getPaymentReport() - Generates payment verification report
+    // appendPaymentReport(StringBuilder report) - Appends the payment section from
+    // the running counters
     // getFinancialReport() - Generates financial summary report
+    // appendWaitingByDestination(StringBuilder report) - Counts queued
+    // passengers per destination code for the comprehensive report
+    // getArchiveSummary(long fromMillis, long toMillis) - Boardings and revenue
+    // by destination and ticket type, scanned from the mapped served archive
+    // getArchiveReport(int days) - End-of-day / multi-day archive report
+    // appendArchiveTotals(StringBuilder report, Map totals) - Appends one
+    // breakdown of an archive report
     // getUptimeString() - Calculates system uptime as string
+    // padRight/padLeft/padLeftZero - Fixed-width report columns without
+    // String.format
+
+    // ====================================================================
+    // CONCURRENCY
+    // ====================================================================
+    // Admission to the ticket area is lock-free: a kiosk takes one of the
+    // ticketAreaSlots permits (a CAS for the non-blocking path) and publishes the
+    // passenger into admissionRing. Every other operation runs under stateLock
+    // (single writer), which first drains the ring into ticketAreaQueue. Taking
+    // the permit is the linearization point of the ticket area capacity check;
+    // since permits never exceed the ring size, a granted offer always fits.
+    // addPassengerToTicketArea(Passenger p, long timeout, TimeUnit unit) - Waits
+    // up to timeout for a ticket area slot instead of failing immediately
+    // tryReserveTicketSlot() - Reserves one ticket area slot if capacity allows
+    // releaseTicketSlot() - Frees a ticket area slot when a passenger leaves it
+    // drainAdmissions() - Moves admitted passengers into the ticket area queue
+    // getTicketAreaSize() - Returns ticket area occupancy without locking
 
     // ====================================================================
     // CORE PASSENGER OPERATION METHODS
@@ -55,14 +110,95 @@ public class TransitQManager {
     // addPassengerToTicketArea(Passenger p) - Adds passenger to ticket area queue
     // passPassengerToAssignArea() - Moves passenger from ticket area to assign area
     // with payment verification
+    // processUpTo(int n) - Verifies and moves up to n (at least 1) passengers from ticket area
+    // to assign area in one batch
+    // processUntilAssignFull() - Processes the ticket area until the assign area
+    // is full or the ticket area is empty
     // addPassengerToBus() - Boards passenger from assign area to bus
+    // boardUpTo(int n) - Boards up to n (at least 1) passengers into the current bus in one
+    // seat reservation
+    // boardUntilFull() - Boards passengers until the current bus or the assign
+    // area runs out
+    // recordServed(List<Passenger> boarded, Bus bus) - Moves boarded
+    // passengers into the served window, aggregates and archive
     // searchPassenger(String searchInput) - Searches for passenger by ID or name
     // searchPassengerById(int id) - Searches passenger by ID
     // searchPassengerByName(String name) - Searches passenger by name
     // updatePassenger(int id, String newName, String newDest, String newTicketType)
     // - Updates passenger information
+    // updatePassengerPayment(int id, String moneyPaid, boolean paid) - Updates the
+    // amount paid and the verified flag
     // removePassenger(int id) - Removes passenger from system by ID
 
+    // ====================================================================
+    // JOURNAL METHODS
+    // ====================================================================
+    // Every state change is appended to the write-ahead journal (see Journal)
+    // as a record of its effect, under stateLock, before the change is applied.
+    // The one exception is lock-free admission: its ENQUEUED record is appended
+    // together with the ring publish under the journal lock
+    // (Journal.appendIfPublished), so record order matches ticket area order.
+    // The constructor replays the journal to rebuild queues, buses and
+    // counters after a restart.
+    // applyJournalRecord(long lsn, JournalRecord record) - Re-applies one
+    // replayed record
+    // journalEnqueued/journalTicketed/journalBoarded/journalPassenger/
+    // journalBus - Build and append records
+    // enqueuedRecord(Passenger p) - Builds the ENQUEUED record
+    // makeActiveBus(String busName) - Makes a bus the active one (shared by
+    // assignment and replay)
+    // rotateDepartedBus(long departedAtMillis) - Rotates the bus order after a
+    // departure (shared by departBus and replay)
+
+    // ====================================================================
+    // SNAPSHOT METHODS
+    // ====================================================================
+    // Startup loads the newest snapshot and replays only the journal records
+    // after it. Snapshots are captured into a byte array under stateLock (a
+    // copy of the state, taken in microseconds) and written to disk with the
+    // lock released, every transitq.snapshot.intervalSeconds and on close().
+    // snapshot() - Captures the state and writes it, then truncates the journal
+    // startSnapshots() - Schedules periodic snapshots
+    // captureSnapshot() - Encodes the full state (caller holds stateLock)
+    // loadSnapshot() - Restores the newest usable snapshot, falling back to
+    // older ones and then to a full replay
+    // restoreSnapshot(byte[] state) - Decodes a snapshot into the empty manager,
+    // applying nothing unless the whole snapshot parses and every fare it
+    // counted is still in the fare table
+
+    // ====================================================================
+    // EVENT LISTENER METHODS
+    // ====================================================================
+    // addListener(TransitQListener listener) - Subscribes a listener to domain
+    // events
+    // removeListener(TransitQListener listener) - Unsubscribes a listener
+    // fire(Consumer<TransitQListener> event) - Delivers an event to every
+    // listener, or queues it until stateLock is released
+    // deliverEvents() - Delivers the events queued while this thread held
+    // stateLock
+
+    // ====================================================================
+    // PASSENGER STATUS METHODS
+    // ====================================================================
+    // getPassengerStatus(int id) - Returns stage, queue position and estimated
+    // wait of a passenger in O(log n)
+    // subscribeToStatus(int id, PassengerStatusListener listener) - Pushes the
+    // passenger's status now and whenever it changes
+    // StatusSubscription - Listener that recomputes one passenger's status on
+    // queue events
+
+    // ====================================================================
+    // PASSENGER INDEX METHODS
+    // ====================================================================
+    // Lookup by ID and location come from passengerStore, the struct-of-arrays
+    // store both queues are threaded through; only names need an index here,
+    // and it maps to passenger IDs since the store hands out Passenger copies.
+    // indexPassenger(Passenger p) - Registers passenger in the name index
+    // unindexPassenger(Passenger p) - Drops passenger from the name index
+    // getPassengerLocation(int id) - Returns the area a passenger is queued in
+    // getQueuePosition(int id) - Returns position of a passenger within its area
+    // nameKey(String name) - Case-folds a name for the name index
+
     // ====================================================================
     // PREDEFINED PASSENGER METHODS
     // ====================================================================
@@ -81,7 +217,12 @@ public class TransitQManager {
     // ====================================================================
     // getTicketAreaQueue() - Returns copy of ticket area queue
     // getAssignAreaQueue() - Returns copy of assign area queue
-    // getServedLog() - Returns copy of served passengers log
+    // getTicketAreaPassengers() - Returns ticket area passengers as a list snapshot
+    // getAssignAreaPassengers() - Returns assign area passengers as a list snapshot
+    // getServedLog() - Returns copy of the recently served passengers window
+    // getServedCount() - Returns number of passengers served since startup
+    // getServedRevenueCentavos() - Returns total fares paid by served passengers
+    // isPassengerServed(int id) - Checks if the passenger ID has boarded a bus
     // getTicketAreaCapacity() - Returns ticket area capacity
     // getAssignAreaDisplayCapacity() - Returns assign area display capacity
     // getCurrentlyAssignedBusName() - Returns currently assigned bus name
@@ -94,11 +235,29 @@ public class TransitQManager {
     // getAssignAreaCurrentSize() - Returns current assign area queue size
 
     // Fields declaration...
-    private Queue<Passenger> ticketAreaQueue;
-    private Queue<Passenger> assignAreaQueue;
-    private List<Passenger> servedLog;
-
+    // Both queues live in one slot store (see PASSENGER INDEX METHODS above)
+    private final PassengerStore passengerStore = new PassengerStore();
+    private PassengerQueue ticketAreaQueue;
+    private PassengerQueue assignAreaQueue;
+    // Served passengers: a rolling window in memory, full history in the archive
+    private static final int SERVED_WINDOW_CAPACITY = 100;
+    private final RecentRing<Passenger> servedWindow = new RecentRing<>(SERVED_WINDOW_CAPACITY);
+    private final ServedArchive servedArchive = ServedArchive.fromSystemProperties();
+    private final BitSet servedIds = new BitSet();
+    private long servedCount;
+    private long servedRevenueCentavos;
+    // name|destination of predefined passengers that have boarded
+    private final Set<String> servedPredefinedKeys = new HashSet<>();
+
+    // Name lookup over both queues, kept in step with every enqueue/poll/remove
+    private Map<String, List<Integer>> nameIndex;
+
+    // Concurrency control (see CONCURRENCY above)
+    private final ReentrantLock stateLock = new ReentrantLock();
     private final int TICKET_AREA_CAPACITY = 15;
+    private final Semaphore ticketAreaSlots = new Semaphore(TICKET_AREA_CAPACITY);
+    private final PassengerRingBuffer admissionRing = new PassengerRingBuffer(TICKET_AREA_CAPACITY);
+
     private final int ASSIGN_AREA_DISPLAY_CAPACITY = 15;
     private Map<String, Bus> buses;
     private String currentlyAssignedBusName;
@@ -108,21 +267,51 @@ public class TransitQManager {
 
     // Predefined passengers
     private List<Passenger> predefinedPassengers;
+    private final Set<String> predefinedKeys = new HashSet<>();
 
     // Enhanced fields for payment verification and reporting
-    private Map<Integer, String> paymentVerificationLog;
-    private double totalCashCollected;
-    private int vipTicketsSold;
-    private int standardTicketsSold;
-    private int discountedTicketsSold;
-    private List<String> departureLog;
+    private static final int VERIFICATION_LOG_CAPACITY = 256;
+    private final VerificationLog verificationLog = VerificationLog.fromSystemProperties(VERIFICATION_LOG_CAPACITY);
+    // Money is tracked in centavos (see Money)
+    private final FareTable fareTable = FareTable.active();
+    private final LongAdder totalCashCentavos = new LongAdder();
+    // Indexed by ticket code; sized from the fare table so new classes need no code
+    private final LongAdder[] ticketsSold = newCounters(fareTable.size());
+    private final LongAdder[] cashByTicketType = newCounters(fareTable.size());
     private LocalDateTime systemStartTime;
 
+    // Running "last N" views for the reports, updated as events happen
+    private static final int RECENT_BOARDINGS_SHOWN = 10;
+    private static final int RECENT_DEPARTURES_SHOWN = 5;
+    private static final int RECENT_VERIFICATIONS_SHOWN = 10;
+    private final RecentRing<String> recentDepartures = new RecentRing<>(RECENT_DEPARTURES_SHOWN);
+
+    // Recent service rates per stage, used for passenger ETAs
+    private final ServiceRateEstimator ticketServiceRate = new ServiceRateEstimator();
+    private final ServiceRateEstimator boardingServiceRate = new ServiceRateEstimator();
+
+    // Subscribers to domain events (see TransitQListener)
+    private final List<TransitQListener> listeners = new CopyOnWriteArrayList<>();
+    // Events fired while this thread holds stateLock, so listeners (which may
+    // block on Swing or call back into the manager) never run under the lock
+    private final ThreadLocal<List<Consumer<TransitQListener>>> pendingEvents =
+            ThreadLocal.withInitial(ArrayList::new);
+
+    // Write-ahead journal and snapshots (see JOURNAL and SNAPSHOT METHODS above)
+    private final Journal journal = Journal.fromSystemProperties();
+    private boolean replaying;
+    private static final int SNAPSHOT_VERSION = 2;
+    private SnapshotStore snapshots;
+    private ScheduledExecutorService snapshotWriter;
+    private final Object snapshotLock = new Object();
+    private long lastSnapshotLsn = -1L;
+
     // Constructor - initializes all components
     public TransitQManager() {
-        this.ticketAreaQueue = new LinkedList<>();
-        this.assignAreaQueue = new LinkedList<>();
-        this.servedLog = new ArrayList<>();
+        this.ticketAreaQueue = new PassengerQueue(passengerStore, PassengerLocation.TICKET_AREA);
+        this.assignAreaQueue = new PassengerQueue(passengerStore, PassengerLocation.ASSIGN_AREA);
+
+        this.nameIndex = new HashMap<>();
 
         // Initialize buses in order
         this.buses = new LinkedHashMap<>();
@@ -150,18 +339,41 @@ public class TransitQManager {
 
         // Initialize predefined passengers
         this.predefinedPassengers = createPredefinedPassengers();
+        for (Passenger passenger : predefinedPassengers) {
+            predefinedKeys.add(servedKey(passenger));
+        }
 
         // Initialize enhanced fields
-        this.paymentVerificationLog = new HashMap<>();
-        this.totalCashCollected = 0.0;
-        this.vipTicketsSold = 0;
-        this.standardTicketsSold = 0;
-        this.discountedTicketsSold = 0;
-        this.departureLog = new ArrayList<>();
         this.systemStartTime = LocalDateTime.now();
 
-        // Add some predefined passengers to ticket area initially
-        initializeWithPredefinedPassengers();
+        // Rebuild state from the newest snapshot plus the journal tail; a
+        // fresh start seeds the ticket area
+        replaying = true;
+        long snapshotLsn = 0L;
+        if (journal.lock()) {
+            snapshots = new SnapshotStore(journal.getDirectory());
+            snapshotLsn = loadSnapshot();
+        }
+        long replayed = journal.open(snapshotLsn, this::applyJournalRecord);
+        replaying = false;
+        if (lastSnapshotLsn < 0 && replayed == 0) {
+            // Add some predefined passengers to ticket area initially
+            initializeWithPredefinedPassengers();
+        }
+        startSnapshots();
+        servedArchive.open();
+    }
+
+    // Takes a final snapshot, writes out the journal and releases it; the
+    // manager stays usable but further changes are no longer journaled
+    public void close() {
+        if (snapshotWriter != null) {
+            snapshotWriter.shutdown();
+        }
+        snapshot();
+        journal.close();
+        verificationLog.flush();
+        servedArchive.close();
     }
 
     // Creates list of predefined passengers with sample data
@@ -189,8 +401,10 @@ public class TransitQManager {
     private void initializeWithPredefinedPassengers() {
         for (int i = 0; i < 13 && i < predefinedPassengers.size(); i++) {
             Passenger passenger = predefinedPassengers.get(i);
-            if (ticketAreaQueue.size() < TICKET_AREA_CAPACITY) {
+            if (tryReserveTicketSlot()) {
+                journalEnqueued(passenger);
                 ticketAreaQueue.offer(passenger);
+                indexPassenger(passenger);
             }
         }
     }
@@ -199,178 +413,527 @@ public class TransitQManager {
     // --- Enhanced Core Operations with Payment Verification ---
     // Adds passenger to ticket area queue
     public String addPassengerToTicketArea(Passenger p) {
-        if (ticketAreaQueue.size() >= TICKET_AREA_CAPACITY) {
+        if (!tryReserveTicketSlot()) {
+            return "ALERT: TICKET AREA FULL! Cannot add new passenger.";
+        }
+        return admitReservedPassenger(p);
+    }
+
+    // Adds passenger to ticket area queue, waiting up to timeout for a free slot
+    public String addPassengerToTicketArea(Passenger p, long timeout, TimeUnit unit) {
+        try {
+            if (!ticketAreaSlots.tryAcquire(timeout, unit)) {
+                return "ALERT: TICKET AREA FULL! No slot freed up within the waiting time.";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ALERT: TICKET AREA FULL! Waiting for a slot was interrupted.";
+        }
+        return admitReservedPassenger(p);
+    }
+
+    // Publishes a passenger whose ticket area slot is already reserved
+    private String admitReservedPassenger(Passenger p) {
+        // Publishing and journaling are one step under the journal lock, so
+        // ENQUEUED records are in ring (FIFO) order and precede anything done to p
+        boolean published = journal.appendIfPublished(enqueuedRecord(p), () -> admissionRing.offer(p));
+        journal.commit();
+        if (!published) {
+            // Cannot happen while permits <= ring size; keep the slot count honest anyway
+            releaseTicketSlot();
             return "ALERT: TICKET AREA FULL! Cannot add new passenger.";
         }
-        ticketAreaQueue.offer(p);
+        fire(l -> l.onPassengerEnqueued(p));
         return "ENQUEUE: Added to Ticket Area. ID: " + p.getPassengerId() +
-                ". Queue: " + ticketAreaQueue.size() + "/" + TICKET_AREA_CAPACITY;
+                ". Queue: " + getTicketAreaSize() + "/" + TICKET_AREA_CAPACITY;
+    }
+
+    // Reserves one ticket area slot without blocking; false if the area is full
+    private boolean tryReserveTicketSlot() {
+        return ticketAreaSlots.tryAcquire();
+    }
+
+    // Frees a ticket area slot when a passenger leaves the ticket area
+    private void releaseTicketSlot() {
+        ticketAreaSlots.release();
+    }
+
+    // Moves admitted passengers into the ticket area queue (caller holds stateLock)
+    private void drainAdmissions() {
+        Passenger p;
+        while ((p = admissionRing.poll()) != null) {
+            ticketAreaQueue.offer(p);
+            indexPassenger(p);
+        }
     }
 
     // Moves passenger from ticket area to assign area with payment verification
     public String passPassengerToAssignArea() {
-        if (ticketAreaQueue.isEmpty()) {
-            return "ERROR: TICKET AREA is empty. No passenger to process.";
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (ticketAreaQueue.isEmpty()) {
+                return "ERROR: TICKET AREA is empty. No passenger to process.";
+            }
+            if (assignAreaQueue.size() >= ASSIGN_AREA_DISPLAY_CAPACITY) {
+                return "ALERT: ASSIGN PASSENGER AREA FULL! Board a passenger first.";
+            }
+
+            long[] sold = new long[ticketsSold.length];
+            long[] cash = new long[ticketsSold.length];
+            List<Passenger> rejected = new ArrayList<>(1);
+            ticketServiceRate.recordServed(1);
+            PaymentVerification verification = ticketHead(sold, cash, rejected);
+            int id = verification.getPassengerId();
+
+            if (!verification.isVerified()) {
+                Passenger p = rejected.get(0);
+                fire(l -> l.onPassengerRejected(p, verification));
+                return "DENIED: Passenger ID " + id +
+                        " payment verification failed. Removed from system.";
+            }
+
+            applyPayments(sold, cash);
+            fireVerified(verification);
+            return "PASS: Passenger ID " + id +
+                    " moved to ASSIGN AREA. Payment Verified: ₱" + Money.format(verification.getPaidCentavos()) +
+                    ". Assigned Bus: " + currentlyAssignedBusName;
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-        if (assignAreaQueue.size() >= ASSIGN_AREA_DISPLAY_CAPACITY) {
-            return "ALERT: ASSIGN PASSENGER AREA FULL! Board a passenger first.";
+    }
+
+    // Verifies and moves up to n passengers from ticket area to assign area
+    public TicketingResult processUpTo(int n) {
+        if (n <= 0) {
+            return new TicketingResult(new int[0], new ArrayList<>(),
+                    "ERROR: Number of passengers to process must be at least 1 (got " + n + ").");
         }
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            List<Passenger> rejected = new ArrayList<>();
+            if (ticketAreaQueue.isEmpty()) {
+                return new TicketingResult(new int[0], rejected,
+                        "ERROR: TICKET AREA is empty. No passenger to process.");
+            }
+            int room = ASSIGN_AREA_DISPLAY_CAPACITY - assignAreaQueue.size();
+            if (room <= 0) {
+                return new TicketingResult(new int[0], rejected,
+                        "ALERT: ASSIGN PASSENGER AREA FULL! Board a passenger first.");
+            }
 
-        Passenger p = ticketAreaQueue.poll();
-        if (p != null) {
-            boolean paymentVerified = verifyPayment(p);
-            p.setPaid(paymentVerified);
+            // Accepted passengers stay in their store slots; only IDs are kept
+            long[] sold = new long[ticketsSold.length];
+            long[] cash = new long[ticketsSold.length];
+            int[] acceptedIds = new int[Math.min(room, ticketAreaQueue.size())];
+            int acceptedCount = 0;
+            boolean listening = !listeners.isEmpty();
+            List<PaymentVerification> acceptedChecks = listening ? new ArrayList<>() : null;
+            List<PaymentVerification> rejectedChecks = listening ? new ArrayList<>() : null;
+            int processed = 0;
+            while (processed < n && acceptedCount < room && !ticketAreaQueue.isEmpty()) {
+                PaymentVerification verification = ticketHead(sold, cash, rejected);
+                processed++;
+                if (verification.isVerified()) {
+                    acceptedIds[acceptedCount++] = verification.getPassengerId();
+                    if (listening) {
+                        acceptedChecks.add(verification);
+                    }
+                } else if (listening) {
+                    rejectedChecks.add(verification);
+                }
+            }
 
-            if (!paymentVerified) {
-                removePassenger(p.getPassengerId());
-                return "DENIED: Passenger ID " + p.getPassengerId() +
-                        " payment verification failed. Removed from system.";
+            ticketServiceRate.recordServed(processed);
+            applyPayments(sold, cash);
+            if (listening) {
+                for (int i = 0; i < rejected.size(); i++) {
+                    Passenger p = rejected.get(i);
+                    PaymentVerification verification = rejectedChecks.get(i);
+                    fire(l -> l.onPassengerRejected(p, verification));
+                }
+                for (PaymentVerification verification : acceptedChecks) {
+                    fireVerified(verification);
+                }
             }
 
-            recordPayment(p);
+            StringBuilder message = new StringBuilder();
+            message.append("PROCESSED: ").append(processed).append(" passenger(s) from TICKET AREA. ")
+                    .append("Moved to ASSIGN AREA: ").append(acceptedCount)
+                    .append(". Rejected (payment failed): ").append(rejected.size());
+            if (!rejected.isEmpty()) {
+                message.append(" [IDs");
+                for (Passenger p : rejected) {
+                    message.append(' ').append(p.getPassengerId());
+                }
+                message.append(']');
+            }
+            message.append(". Assigned Bus: ").append(currentlyAssignedBusName);
 
-            assignAreaQueue.offer(p);
-            return "PASS: Passenger ID " + p.getPassengerId() +
-                    " moved to ASSIGN AREA. Payment Verified: ₱" + p.getMoneyPaid() +
-                    ". Assigned Bus: " + currentlyAssignedBusName;
+            return new TicketingResult(Arrays.copyOf(acceptedIds, acceptedCount), rejected, message.toString());
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-        return "ERROR: Failed to pass passenger (unexpected error).";
+    }
+
+    // Processes the ticket area until the assign area is full or ticket area is empty
+    public TicketingResult processUntilAssignFull() {
+        return processUpTo(Integer.MAX_VALUE);
     }
 
     // Boards passenger from assign area to bus
     public String addPassengerToBus() {
-        if (assignAreaQueue.isEmpty()) {
-            return "ERROR: ASSIGN PASSENGER AREA is empty. No passenger to board.";
-        }
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (assignAreaQueue.isEmpty()) {
+                return "ERROR: ASSIGN PASSENGER AREA is empty. No passenger to board.";
+            }
 
-        Bus assignedBus = buses.get(currentlyAssignedBusName);
-        if (assignedBus == null) {
-            return "ERROR: No bus is currently assigned.";
-        }
+            Bus assignedBus = buses.get(currentlyAssignedBusName);
+            if (assignedBus == null) {
+                return "ERROR: No bus is currently assigned.";
+            }
 
-        if (assignedBus.getCurrentLoad() >= assignedBus.getCapacity()) {
-            return "ALERT: " + assignedBus.getName() + " is full! Please depart the bus.";
-        }
+            // Reserving the seat is the capacity check; it cannot over-board
+            if (!assignedBus.tryReserveSeat()) {
+                return "ALERT: " + assignedBus.getName() + " is full! Please depart the bus.";
+            }
 
-        Passenger boarded = assignAreaQueue.poll();
-        if (boarded != null) {
-            boolean boardedOk = assignedBus.boardPassenger();
-            if (boardedOk) {
-                servedLog.add(boarded);
+            Passenger boarded = assignAreaQueue.poll();
+            if (boarded != null) {
+                journalBoarded(assignedBus.getName(), Collections.singletonList(boarded));
+                unindexPassenger(boarded);
+                recordServed(Collections.singletonList(boarded), assignedBus);
                 return "BOARDED: Passenger ID " + boarded.getPassengerId() + " has boarded " + currentlyAssignedBusName
                         +
                         ". Load: " + assignedBus.getCurrentLoad() + "/" + assignedBus.getCapacity();
-            } else {
-                assignAreaQueue.offer(boarded);
-                return "ALERT: " + assignedBus.getName()
-                        + " became full before boarding. Passenger returned to assign area.";
             }
+            assignedBus.releaseSeats(1);
+            return "ERROR: Failed to board passenger (unexpected error).";
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-        return "ERROR: Failed to board passenger (unexpected error).";
     }
 
-    // Assigns a specific bus to the active queue
-    public String assignBusToQueue(String busName) {
-        if (!buses.containsKey(busName)) {
-            return "ERROR: Bus " + busName + " does not exist.";
+    // Boards up to n passengers from the assign area into the current bus
+    public BoardingResult boardUpTo(int n) {
+        // Rejected before locking, like processUpTo, so no bus state is read
+        if (n <= 0) {
+            return new BoardingResult(null, new ArrayList<>(), 0, 0,
+                    "ERROR: Number of passengers to board must be at least 1 (got " + n + ").");
+        }
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Bus assignedBus = buses.get(currentlyAssignedBusName);
+            if (assignedBus == null) {
+                return new BoardingResult(currentlyAssignedBusName, new ArrayList<>(), 0, 0,
+                        "ERROR: No bus is currently assigned.");
+            }
+            if (assignAreaQueue.isEmpty()) {
+                return new BoardingResult(assignedBus.getName(), new ArrayList<>(), assignedBus.getCurrentLoad(),
+                        assignedBus.getCapacity(), "ERROR: ASSIGN PASSENGER AREA is empty. No passenger to board.");
+            }
+
+            // One reservation for the whole run
+            int granted = assignedBus.reserveSeats(Math.min(n, assignAreaQueue.size()));
+            if (granted == 0) {
+                return new BoardingResult(assignedBus.getName(), new ArrayList<>(), assignedBus.getCurrentLoad(),
+                        assignedBus.getCapacity(),
+                        "ALERT: " + assignedBus.getName() + " is full! Please depart the bus.");
+            }
+
+            List<Passenger> boarded = new ArrayList<>(granted);
+            for (int i = 0; i < granted; i++) {
+                Passenger p = assignAreaQueue.poll();
+                unindexPassenger(p);
+                boarded.add(p);
+            }
+            journalBoarded(assignedBus.getName(), boarded);
+            recordServed(boarded, assignedBus);
+
+            StringBuilder message = new StringBuilder();
+            message.append("BOARDED: ").append(granted).append(" passenger(s) boarded ")
+                    .append(assignedBus.getName()).append(" (first ID ")
+                    .append(boarded.get(0).getPassengerId());
+            if (granted > 1) {
+                message.append(", last ID ").append(boarded.get(granted - 1).getPassengerId());
+            }
+            message.append("). Load: ").append(assignedBus.getCurrentLoad()).append("/")
+                    .append(assignedBus.getCapacity());
+            if (assignedBus.isFull()) {
+                message.append(". Bus is full and ready to depart.");
+            }
+
+            return new BoardingResult(assignedBus.getName(), boarded, assignedBus.getCurrentLoad(),
+                    assignedBus.getCapacity(), message.toString());
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
+    }
+
+    // Boards passengers until the current bus is full or the assign area is empty
+    public BoardingResult boardUntilFull() {
+        return boardUpTo(Integer.MAX_VALUE);
+    }
 
-        Bus bus = buses.get(busName);
-        if (bus.getCurrentLoad() > 0 && !busName.equals(currentlyAssignedBusName)) {
-            return "ALERT: " + busName + " has " + bus.getCurrentLoad() +
-                    " passengers. Cannot reassign while occupied.";
+    // Moves boarded passengers into the served window, aggregates and archive
+    private void recordServed(List<Passenger> boarded, Bus bus) {
+        for (Passenger p : boarded) {
+            servedWindow.add(p);
+            servedIds.set(p.getPassengerId());
+            long amount = p.getAmountCentavos();
+            if (amount != Money.INVALID) {
+                servedRevenueCentavos += amount;
+            }
+            String key = servedKey(p);
+            if (predefinedKeys.contains(key)) {
+                servedPredefinedKeys.add(key);
+            }
         }
-        if (bus.isFull() && !busName.equals(currentlyAssignedBusName)) {
-            return "ALERT: " + busName + " is full. Please depart it first before reassigning.";
+        servedCount += boarded.size();
+        boardingServiceRate.recordServed(boarded.size());
+        if (!replaying) {
+            // Already archived the first time round
+            servedArchive.append(boarded, bus.getName(), System.currentTimeMillis());
         }
 
-        this.currentlyAssignedBusName = busName;
-        if (busOrder.contains(busName)) {
-            busOrder.remove(busName);
-            busOrder.add(0, busName);
+        List<Passenger> event = Collections.unmodifiableList(boarded);
+        fire(l -> l.onPassengersBoarded(bus.getName(), event, bus.getCurrentLoad(), bus.getCapacity()));
+    }
+
+    // Identity used to stop a predefined passenger from being added twice
+    private static String servedKey(Passenger p) {
+        return p.getName() + "|" + p.getDestination();
+    }
+
+    // Assigns a specific bus to the active queue
+    public String assignBusToQueue(String busName) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (!buses.containsKey(busName)) {
+                return "ERROR: Bus " + busName + " does not exist.";
+            }
+
+            Bus bus = buses.get(busName);
+            if (bus.getCurrentLoad() > 0 && !busName.equals(currentlyAssignedBusName)) {
+                return "ALERT: " + busName + " has " + bus.getCurrentLoad() +
+                        " passengers. Cannot reassign while occupied.";
+            }
+            if (bus.isFull() && !busName.equals(currentlyAssignedBusName)) {
+                return "ALERT: " + busName + " is full. Please depart it first before reassigning.";
+            }
+
+            journalBus(JournalRecord.BUS_ASSIGNED, busName);
+            makeActiveBus(busName);
+            fire(l -> l.onBusAssigned(busName));
+            return "ASSIGNED: " + busName + " is now assigned to the queue. Load: " +
+                    bus.getCurrentLoad() + "/" + bus.getCapacity();
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-        return "ASSIGNED: " + busName + " is now assigned to the queue. Load: " +
-                bus.getCurrentLoad() + "/" + bus.getCapacity();
     }
 
     // DEQUEUE / REMOVE
     // Removes passenger from system by ID
     public String removePassenger(int id) {
-        for (Passenger p : ticketAreaQueue) {
-            if (p.getPassengerId() == id) {
-                ticketAreaQueue.remove(p);
-                return "REMOVE: Passenger ID " + id + " removed from TICKET AREA.";
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Passenger p = passengerStore.get(id);
+            if (p == null) {
+                return "ERROR: Passenger ID " + id + " not found in either queue for removal.";
             }
-        }
 
-        for (Passenger p : assignAreaQueue) {
-            if (p.getPassengerId() == id) {
-                assignAreaQueue.remove(p);
-                return "REMOVE: Passenger ID " + id + " removed from ASSIGN AREA.";
+            PassengerLocation location = passengerStore.locationOf(id);
+            journalPassenger(JournalRecord.REMOVED, id);
+            unindexPassenger(p);
+            if (location == PassengerLocation.TICKET_AREA) {
+                ticketAreaQueue.removeById(id);
+                releaseTicketSlot();
+                fire(l -> l.onPassengerRemoved(p, location));
+                return "REMOVE: Passenger ID " + id + " removed from TICKET AREA.";
             }
+            assignAreaQueue.removeById(id);
+            fire(l -> l.onPassengerRemoved(p, location));
+            return "REMOVE: Passenger ID " + id + " removed from ASSIGN AREA.";
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-
-        return "ERROR: Passenger ID " + id + " not found in either queue for removal.";
     }
 
     // SEARCH
     // Searches for passenger by ID or name
     public Passenger searchPassenger(String searchInput) {
+        stateLock.lock();
         try {
-            int id = Integer.parseInt(searchInput);
-            return searchPassengerById(id);
-        } catch (NumberFormatException e) {
-            return searchPassengerByName(searchInput);
+            drainAdmissions();
+            try {
+                int id = Integer.parseInt(searchInput);
+                return searchPassengerById(id);
+            } catch (NumberFormatException e) {
+                return searchPassengerByName(searchInput);
+            }
+        } finally {
+            stateLock.unlock();
         }
     }
 
     // Searches passenger by ID
     private Passenger searchPassengerById(int id) {
-        for (Passenger p : ticketAreaQueue) {
-            if (p.getPassengerId() == id) {
-                return p;
+        return passengerStore.get(id);
+    }
+
+    // Searches passenger by name (ticket area first, then assign area)
+    private Passenger searchPassengerByName(String name) {
+        List<Integer> matches = nameIndex.get(nameKey(name));
+        if (matches == null) {
+            return null;
+        }
+        for (int id : matches) {
+            if (passengerStore.locationOf(id) == PassengerLocation.TICKET_AREA) {
+                return passengerStore.get(id);
             }
         }
-        for (Passenger p : assignAreaQueue) {
-            if (p.getPassengerId() == id) {
-                return p;
+        return passengerStore.get(matches.get(0));
+    }
+
+    // UPDATE
+    // Updates passenger information
+    public String updatePassenger(int id, String newName, String newDest, String newTicketType) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Passenger p = searchPassengerById(id);
+            if (p != null) {
+                journal.append(new JournalRecord(JournalRecord.UPDATED).putInt(id).putString(newName)
+                        .putString(newDest).putString(newTicketType));
+                unindexName(p);
+                p.setName(newName);
+                indexName(p);
+                p.setDestination(newDest);
+                p.setTicketType(newTicketType);
+                passengerStore.update(p);
+                fire(l -> l.onPassengerUpdated(p));
+                return "UPDATE: Passenger ID " + id + " updated successfully. New Name: " + newName;
             }
+            return "ERROR: Passenger ID " + id + " not found for update.";
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-        return null;
     }
 
-    // Searches passenger by name
-    private Passenger searchPassengerByName(String name) {
-        for (Passenger p : ticketAreaQueue) {
-            if (p.getName().equalsIgnoreCase(name)) {
-                return p;
+    // Updates the amount a passenger paid and whether it is verified
+    public String updatePassengerPayment(int id, String moneyPaid, boolean paid) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Passenger p = searchPassengerById(id);
+            if (p == null) {
+                return "ERROR: Passenger ID " + id + " not found for update.";
             }
+            journal.append(new JournalRecord(JournalRecord.PAYMENT_UPDATED).putInt(id).putString(moneyPaid)
+                    .putBoolean(paid));
+            p.setMoneyPaid(moneyPaid);
+            p.setPaid(paid);
+            passengerStore.update(p);
+            fire(l -> l.onPassengerUpdated(p));
+            return "UPDATE: Passenger ID " + id + " payment updated to ₱" + moneyPaid + ".";
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-        for (Passenger p : assignAreaQueue) {
-            if (p.getName().equalsIgnoreCase(name)) {
-                return p;
+    }
+
+    // --- Passenger Index Methods ---
+
+    // Registers passenger in the name index
+    private void indexPassenger(Passenger p) {
+        indexName(p);
+    }
+
+    // Drops passenger from the name index
+    private void unindexPassenger(Passenger p) {
+        unindexName(p);
+    }
+
+    private void indexName(Passenger p) {
+        nameIndex.computeIfAbsent(nameKey(p.getName()), k -> new ArrayList<>(1)).add(p.getPassengerId());
+    }
+
+    private void unindexName(Passenger p) {
+        String key = nameKey(p.getName());
+        List<Integer> matches = nameIndex.get(key);
+        if (matches != null) {
+            matches.remove(Integer.valueOf(p.getPassengerId()));
+            if (matches.isEmpty()) {
+                nameIndex.remove(key);
             }
         }
-        return null;
     }
 
-    // UPDATE
-    // Updates passenger information
-    public String updatePassenger(int id, String newName, String newDest, String newTicketType) {
-        Passenger p = searchPassengerById(id);
-        if (p != null) {
-            p.setName(newName);
-            p.setDestination(newDest);
-            p.setTicketType(newTicketType);
-            return "UPDATE: Passenger ID " + id + " updated successfully. New Name: " + newName;
+    // Returns the indexed location of a passenger, or null if not queued
+    public PassengerLocation getPassengerLocation(int id) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return passengerStore.locationOf(id);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Returns 1-based position of a passenger within its current area, or -1
+    public int getQueuePosition(int id) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            PassengerLocation location = passengerStore.locationOf(id);
+            if (location == PassengerLocation.TICKET_AREA) {
+                return ticketAreaQueue.positionOf(id);
+            }
+            if (location == PassengerLocation.ASSIGN_AREA) {
+                return assignAreaQueue.positionOf(id);
+            }
+            return -1;
+        } finally {
+            stateLock.unlock();
         }
-        return "ERROR: Passenger ID " + id + " not found for update.";
+    }
+
+    // Case-folds a name for the name index
+    private static String nameKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
     }
 
     // Returns list of ALL buses in the system (including those not in current
     // rotation)
     public List<String> getAllSystemBuses() {
-        return new ArrayList<>(buses.keySet());
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new ArrayList<>(buses.keySet());
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // ====================================================================
@@ -380,73 +943,105 @@ public class TransitQManager {
     // removing it
 
     public String peekBus() {
-        if (busOrder.isEmpty()) {
-            return "ERROR: No buses in the queue.";
-        }
-
-        String topBusName = busOrder.get(0);
-        Bus topBus = buses.get(topBusName);
-
-        if (topBus == null) {
-            return "ERROR: Bus " + topBusName + " not found.";
-        }
-
-        StringBuilder details = new StringBuilder();
-        details.append("=== BUS AT TOP OF QUEUE ===\n");
-        details.append("Bus Name: ").append(topBusName).append("\n");
-        details.append("Status: ").append(topBusName.equals(currentlyAssignedBusName) ? "[ACTIVE]" : "[INACTIVE]")
-                .append("\n");
-        details.append("Current Load: ").append(topBus.getCurrentLoad()).append("/").append(topBus.getCapacity())
-                .append("\n");
-        details.append("Is Full: ").append(topBus.isFull() ? "YES" : "NO").append("\n");
-        details.append("Available Seats: ").append(topBus.getCapacity() - topBus.getCurrentLoad()).append("\n");
-        details.append("---------------------------\n");
-        details.append("Next Buses in Queue:\n");
-
-        // Show next 3 buses
-        int count = Math.min(3, busOrder.size() - 1);
-        for (int i = 1; i <= count; i++) {
-            String nextBusName = busOrder.get(i);
-            Bus nextBus = buses.get(nextBusName);
-            if (nextBus != null) {
-                details.append(i).append(". ").append(nextBusName)
-                        .append(" (").append(nextBus.getCurrentLoad()).append("/").append(nextBus.getCapacity())
-                        .append(")");
-                if (nextBus.isFull()) {
-                    details.append(" [FULL]");
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (busOrder.isEmpty()) {
+                return "ERROR: No buses in the queue.";
+            }
+
+            String topBusName = busOrder.get(0);
+            Bus topBus = buses.get(topBusName);
+
+            if (topBus == null) {
+                return "ERROR: Bus " + topBusName + " not found.";
+            }
+
+            StringBuilder details = new StringBuilder();
+            details.append("=== BUS AT TOP OF QUEUE ===\n");
+            details.append("Bus Name: ").append(topBusName).append("\n");
+            details.append("Status: ").append(topBusName.equals(currentlyAssignedBusName) ? "[ACTIVE]" : "[INACTIVE]")
+                    .append("\n");
+            details.append("Current Load: ").append(topBus.getCurrentLoad()).append("/").append(topBus.getCapacity())
+                    .append("\n");
+            details.append("Is Full: ").append(topBus.isFull() ? "YES" : "NO").append("\n");
+            details.append("Available Seats: ").append(topBus.getCapacity() - topBus.getCurrentLoad()).append("\n");
+            details.append("---------------------------\n");
+            details.append("Next Buses in Queue:\n");
+
+            // Show next 3 buses
+            int count = Math.min(3, busOrder.size() - 1);
+            for (int i = 1; i <= count; i++) {
+                String nextBusName = busOrder.get(i);
+                Bus nextBus = buses.get(nextBusName);
+                if (nextBus != null) {
+                    details.append(i).append(". ").append(nextBusName)
+                            .append(" (").append(nextBus.getCurrentLoad()).append("/").append(nextBus.getCapacity())
+                            .append(")");
+                    if (nextBus.isFull()) {
+                        details.append(" [FULL]");
+                    }
+                    details.append("\n");
                 }
-                details.append("\n");
             }
-        }
 
-        return details.toString();
+            return details.toString();
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Add SystemBuss
     public void addSystemBus(String busName) {
-        if (!buses.containsKey(busName)) {
-            buses.put(busName, new Bus(busName, 10));
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (!buses.containsKey(busName)) {
+                journalBus(JournalRecord.BUS_ADDED, busName);
+                buses.put(busName, new Bus(busName, 10));
+            }
+        } finally {
+            stateLock.unlock();
+            journal.commit();
         }
     }
 
     // Returns list of available (empty) buses
     public List<String> getAvailableBuses() {
-        List<String> available = new ArrayList<>();
-        for (Map.Entry<String, Bus> entry : buses.entrySet()) {
-            String busName = entry.getKey();
-            Bus bus = entry.getValue();
-
-            // Changed condition: include all buses that are not full and empty
-            if (!bus.isFull() && bus.getCurrentLoad() == 0) {
-                available.add(busName);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            List<String> available = new ArrayList<>();
+            for (Map.Entry<String, Bus> entry : buses.entrySet()) {
+                String busName = entry.getKey();
+                Bus bus = entry.getValue();
+
+                // Changed condition: include all buses that are not full and empty
+                if (!bus.isFull() && bus.getCurrentLoad() == 0) {
+                    available.add(busName);
+                }
             }
+            return available;
+        } finally {
+            stateLock.unlock();
         }
-        return available;
     }
 
     // Generates status report for all buses
     public String getBusStatusReport() {
-        StringBuilder report = new StringBuilder();
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            StringBuilder report = new StringBuilder(512);
+            appendBusStatus(report);
+            return report.toString();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Appends the bus status section; caller holds stateLock
+    private void appendBusStatus(StringBuilder report) {
         report.append("=== BUS STATUS REPORT ===\n");
         report.append("Current Assigned Bus: ").append(currentlyAssignedBusName).append("\n");
         report.append("Bus Rotation Order: ").append(busOrder).append("\n");
@@ -459,92 +1054,151 @@ public class TransitQManager {
                 if (bus.isFull())
                     status = "[FULL]";
 
-                report.append(String.format("%-10s %-10s Load: %2d/%2d | Available: %2d seats\n",
-                        busName, status, bus.getCurrentLoad(), bus.getCapacity(),
-                        bus.getCapacity() - bus.getCurrentLoad()));
+                int load = bus.getCurrentLoad();
+                padRight(report, busName, 10).append(' ');
+                padRight(report, status, 10).append(" Load: ");
+                padLeft(report, load, 2).append('/');
+                padLeft(report, bus.getCapacity(), 2).append(" | Available: ");
+                padLeft(report, bus.getCapacity() - load, 2).append(" seats\n");
             }
         }
         report.append("\nBUS X     [WAITING]  Load:  0/10 | Available: 10 seats\n");
         report.append("Available New Buses: ").append(availableBusNames).append("\n");
-        return report.toString();
     }
 
     // --- Enhanced Payment Verification Methods ---
 
-    // Verifies if passenger paid enough for their ticket type
-    private boolean verifyPayment(Passenger passenger) {
-        try {
-            double amountPaid = Double.parseDouble(passenger.getMoneyPaid());
-            String ticketType = passenger.getTicketType();
-
-            double requiredAmount = 0.0;
-            switch (ticketType.toLowerCase()) {
-                case "vip":
-                    requiredAmount = 100.00;
-                    break;
-                case "discounted":
-                    requiredAmount = 35.00;
-                    break;
-                case "standard":
-                default:
-                    requiredAmount = 50.00;
-                    break;
-            }
+    // Verifies the ticket area head from its store slot. A verified passenger
+    // moves to the assign area in place and is tallied into sold / cash; a
+    // rejected one leaves the store and is added to rejected. Caller holds
+    // stateLock and has checked the ticket area is not empty.
+    private PaymentVerification ticketHead(long[] sold, long[] cash, List<Passenger> rejected) {
+        int slot = ticketAreaQueue.headSlot();
+        int id = passengerStore.idAt(slot);
+        int ticketCode = passengerStore.ticketCodeAt(slot);
+        long amount = passengerStore.amountAt(slot);
+        releaseTicketSlot();
+        PaymentVerification verification = verifyPayment(id, ticketCode, amount);
+        journalTicketed(verification);
+        if (verification.isVerified()) {
+            passengerStore.setPaidAt(slot, true);
+            tallyPayment(id, ticketCode, amount, sold, cash);
+            ticketAreaQueue.moveTo(id, assignAreaQueue);
+        } else {
+            Passenger p = ticketAreaQueue.removeById(id);
+            p.setPaid(false);
+            unindexPassenger(p);
+            rejected.add(p);
+        }
+        return verification;
+    }
 
-            boolean verified = amountPaid >= requiredAmount;
-            String status = verified ? "VERIFIED" : "INSUFFICIENT";
-            paymentVerificationLog.put(passenger.getPassengerId(),
-                    status + " (Paid: ₱" + amountPaid + ", Required: ₱" + requiredAmount + ")");
+    // Fires onPassengerVerified, building the passenger only if someone listens
+    private void fireVerified(PaymentVerification verification) {
+        if (!listeners.isEmpty()) {
+            Passenger p = passengerStore.get(verification.getPassengerId());
+            fire(l -> l.onPassengerVerified(p, verification));
+        }
+    }
 
-            return verified;
+    // Verifies if a passenger paid enough for their ticket type
+    private PaymentVerification verifyPayment(int passengerId, int ticketCode, long amountPaid) {
+        long requiredAmount = fareTable.getFare(ticketCode);
 
-        } catch (NumberFormatException e) {
-            paymentVerificationLog.put(passenger.getPassengerId(), "INVALID_AMOUNT_FORMAT");
-            return false;
+        PaymentVerification.Status status;
+        if (amountPaid == Money.INVALID) {
+            status = PaymentVerification.Status.INVALID_AMOUNT_FORMAT;
+        } else if (amountPaid >= requiredAmount) {
+            status = PaymentVerification.Status.VERIFIED;
+        } else {
+            status = PaymentVerification.Status.INSUFFICIENT;
         }
+        PaymentVerification verification = new PaymentVerification(passengerId, status,
+                amountPaid, requiredAmount, System.currentTimeMillis());
+        verificationLog.record(verification);
+        return verification;
     }
 
-    // Records payment in financial tracking
-    private void recordPayment(Passenger passenger) {
-        try {
-            double amount = Double.parseDouble(passenger.getMoneyPaid());
-            totalCashCollected += amount;
+    // Adds one payment to a batch of per-ticket-code counts and cash
+    private static void tallyPayment(int passengerId, int ticketCode, long amount, long[] sold, long[] cash) {
+        if (amount == Money.INVALID) {
+            System.err.println("Error recording payment for passenger: " + passengerId);
+            return;
+        }
+        sold[ticketCode]++;
+        cash[ticketCode] += amount;
+    }
 
-            switch (passenger.getTicketType().toLowerCase()) {
-                case "vip":
-                    vipTicketsSold++;
-                    break;
-                case "discounted":
-                    discountedTicketsSold++;
-                    break;
-                case "standard":
-                default:
-                    standardTicketsSold++;
-                    break;
+    // Applies a batch of payments, updating the financial counters once
+    private void applyPayments(long[] sold, long[] cash) {
+        long total = 0L;
+        for (int code = 0; code < sold.length; code++) {
+            if (sold[code] != 0) {
+                ticketsSold[code].add(sold[code]);
+                cashByTicketType[code].add(cash[code]);
+                total += cash[code];
             }
-        } catch (NumberFormatException e) {
-            System.err.println("Error recording payment for passenger: " + passenger.getPassengerId());
         }
+        totalCashCentavos.add(total);
+    }
+
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    // Returns the fare table used for payment verification
+    public FareTable getFareTable() {
+        return fareTable;
     }
 
     // --- Enhanced Bus Departure Logic ---
 
     // Departs current bus and rotates bus queue
     public String departBus() {
-        Bus currentBus = buses.get(currentlyAssignedBusName);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Bus currentBus = buses.get(currentlyAssignedBusName);
 
-        if (currentBus == null) {
-            return "ERROR: No bus to depart.";
-        }
+            if (currentBus == null) {
+                return "ERROR: No bus to depart.";
+            }
 
-        if (currentBus.getCurrentLoad() == 0) {
-            return "ALERT: " + currentBus.getName() + " is empty. No need to depart.";
-        }
+            if (currentBus.getCurrentLoad() == 0) {
+                return "ALERT: " + currentBus.getName() + " is empty. No need to depart.";
+            }
 
-        String departureMessage = "DEPARTED: " + currentBus.getName() + " has departed with " +
-                currentBus.getCurrentLoad() + " passengers.";
+            String departureMessage = "DEPARTED: " + currentBus.getName() + " has departed with " +
+                    currentBus.getCurrentLoad() + " passengers.";
+            String departedName = currentBus.getName();
+            int departedLoad = currentBus.getCurrentLoad();
+
+            long departedAt = System.currentTimeMillis();
+            journal.append(new JournalRecord(JournalRecord.DEPARTED).putLong(departedAt));
+            rotateDepartedBus(departedAt);
+
+            String nextBusName = currentlyAssignedBusName;
+            fire(l -> l.onBusDeparted(departedName, departedLoad));
+            fire(l -> l.onBusAssigned(nextBusName));
+            return departureMessage + " New active bus: " + currentlyAssignedBusName;
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
+        }
+    }
 
-        departureLog.add(LocalDateTime.now() + " - " + currentBus.getName() +
+    // Resets the active bus, moves it to the back of the rotation (or swaps in
+    // a fresh bus name) and activates the next one
+    private void rotateDepartedBus(long departedAtMillis) {
+        Bus currentBus = buses.get(currentlyAssignedBusName);
+        LocalDateTime departedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(departedAtMillis),
+                ZoneId.systemDefault());
+        recentDepartures.add(departedAt + " - " + currentBus.getName() +
                 " departed with " + currentBus.getCurrentLoad() + " passengers");
 
         currentBus.resetBus();
@@ -563,125 +1217,1014 @@ public class TransitQManager {
         }
 
         currentlyAssignedBusName = busOrder.get(0);
+    }
 
-        return departureMessage + " New active bus: " + currentlyAssignedBusName;
+    // Makes a bus the active one and moves it to the front of the rotation
+    private void makeActiveBus(String busName) {
+        this.currentlyAssignedBusName = busName;
+        if (busOrder.contains(busName)) {
+            busOrder.remove(busName);
+            busOrder.add(0, busName);
+        }
     }
 
     // --- Enhanced Reporting Methods ---
 
     // Generates payment verification report
     public String getPaymentReport() {
-        StringBuilder report = new StringBuilder();
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            StringBuilder report = new StringBuilder(1024);
+            appendPaymentReport(report);
+            return report.toString();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Appends the payment section from the running counters; caller holds stateLock
+    private void appendPaymentReport(StringBuilder report) {
         report.append("=== PAYMENT REPORT ===\n");
-        report.append(String.format("Total Cash Collected: ₱%.2f\n", totalCashCollected));
+        report.append("Total Cash Collected: ₱");
+        Money.appendTo(report, totalCashCentavos.sum()).append("\n");
         report.append("Tickets Sold:\n");
-        report.append(String.format("  VIP: %d tickets\n", vipTicketsSold));
-        report.append(String.format("  Standard: %d tickets\n", standardTicketsSold));
-        report.append(String.format("  Discounted: %d tickets\n", discountedTicketsSold));
-        report.append(
-                String.format("Total Tickets: %d\n", (vipTicketsSold + standardTicketsSold + discountedTicketsSold)));
+        long totalTickets = 0;
+        for (int code = 0; code < fareTable.size(); code++) {
+            long sold = ticketsSold[code].sum();
+            totalTickets += sold;
+            report.append("  ").append(fareTable.getName(code)).append(": ").append(sold).append(" tickets (₱");
+            Money.appendTo(report, cashByTicketType[code].sum()).append(")\n");
+        }
+        report.append("Total Tickets: ").append(totalTickets).append("\n");
         report.append("----------------------\n");
 
-        report.append("Recent Payment Verifications (Last 10):\n");
-        List<Integer> recentIds = paymentVerificationLog.keySet().stream()
-                .sorted((a, b) -> b - a)
-                .limit(10)
-                .collect(Collectors.toList());
-
-        for (Integer id : recentIds) {
-            report.append(String.format("  Passenger ID %d: %s\n", id, paymentVerificationLog.get(id)));
+        report.append("Recent Payment Verifications (Last ").append(RECENT_VERIFICATIONS_SHOWN).append("):\n");
+        int shown = Math.min(RECENT_VERIFICATIONS_SHOWN, verificationLog.size());
+        for (int i = 0; i < shown; i++) {
+            PaymentVerification entry = verificationLog.getRecent(i);
+            report.append("  Passenger ID ").append(entry.getPassengerId()).append(": ");
+            entry.appendTo(report).append("\n");
         }
-
-        return report.toString();
     }
 
     // Generates financial summary report
     public String getFinancialReport() {
-        double vipRevenue = vipTicketsSold * 100.00;
-        double standardRevenue = standardTicketsSold * 50.00;
-        double discountedRevenue = discountedTicketsSold * 35.00;
-        double calculatedTotal = vipRevenue + standardRevenue + discountedRevenue;
-
-        StringBuilder report = new StringBuilder();
-        report.append("=== FINANCIAL REPORT ===\n");
-        report.append(String.format("Revenue by Ticket Type:\n"));
-        report.append(String.format("  VIP (₱100.00 x %d): ₱%.2f\n", vipTicketsSold, vipRevenue));
-        report.append(String.format("  Standard (₱50.00 x %d): ₱%.2f\n", standardTicketsSold, standardRevenue));
-        report.append(String.format("  Discounted (₱35.00 x %d): ₱%.2f\n", discountedTicketsSold, discountedRevenue));
-        report.append(String.format("Total Calculated Revenue: ₱%.2f\n", calculatedTotal));
-        report.append(String.format("Total Cash Collected: ₱%.2f\n", totalCashCollected));
-        report.append(String.format("Discrepancy: ₱%.2f\n", (totalCashCollected - calculatedTotal)));
-        report.append("========================\n");
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            StringBuilder report = new StringBuilder();
+            report.append("=== FINANCIAL REPORT ===\n");
+            report.append("Revenue by Ticket Type:\n");
+            long calculatedTotal = 0L;
+            for (int code = 0; code < fareTable.size(); code++) {
+                long sold = ticketsSold[code].sum();
+                long revenue = sold * fareTable.getFare(code);
+                calculatedTotal += revenue;
+                report.append("  ").append(fareTable.getName(code)).append(" (₱");
+                Money.appendTo(report, fareTable.getFare(code)).append(" x ").append(sold).append("): ₱");
+                Money.appendTo(report, revenue).append("\n");
+            }
+            long totalCash = totalCashCentavos.sum();
+            report.append("Total Calculated Revenue: ₱").append(Money.format(calculatedTotal)).append("\n");
+            report.append("Total Cash Collected: ₱").append(Money.format(totalCash)).append("\n");
+            // Exact in centavos: any difference is genuine overpayment (no change is given)
+            report.append("Discrepancy: ₱").append(Money.format(totalCash - calculatedTotal)).append("\n");
+            // Scanned from the passenger store's ticket code and amount columns
+            report.append("Awaiting Ticketing: ").append(ticketAreaQueue.size()).append(" passenger(s), fares due ₱");
+            Money.appendTo(report, passengerStore.faresDueCentavos(PassengerLocation.TICKET_AREA, fareTable))
+                    .append(", cash offered ₱");
+            Money.appendTo(report, passengerStore.cashOfferedCentavos(PassengerLocation.TICKET_AREA)).append("\n");
+            report.append("========================\n");
+
+            return report.toString();
+        } finally {
+            stateLock.unlock();
+        }
+    }
 
-        return report.toString();
+    // Appends how many queued passengers are headed to each destination,
+    // counted by destination code (by text for destinations the pool
+    // refused); caller holds stateLock
+    private void appendWaitingByDestination(StringBuilder report) {
+        int[] waiting = new int[StringPool.DESTINATIONS.size()];
+        Map<String, Integer> unpooled = new LinkedHashMap<>();
+        int destinations = 0;
+        for (PassengerQueue queue : new PassengerQueue[] { ticketAreaQueue, assignAreaQueue }) {
+            for (Passenger p : queue) {
+                int code = p.getDestinationCode();
+                if (code == StringPool.UNPOOLED) {
+                    if (unpooled.merge(p.getDestination(), 1, Integer::sum) == 1) {
+                        destinations++;
+                    }
+                } else if (code != StringPool.NONE && waiting[code]++ == 0) {
+                    destinations++;
+                }
+            }
+        }
+        if (destinations == 0) {
+            return;
+        }
+        report.append("   Waiting by Destination:\n");
+        for (int code = 0; code < waiting.length; code++) {
+            if (waiting[code] > 0) {
+                report.append("     ").append(StringPool.DESTINATIONS.get(code)).append(": ")
+                        .append(waiting[code]).append("\n");
+            }
+        }
+        for (Map.Entry<String, Integer> entry : unpooled.entrySet()) {
+            report.append("     ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        }
     }
 
     // Generates comprehensive system report
     public String getComprehensiveReport() {
-        StringBuilder report = new StringBuilder();
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            StringBuilder report = new StringBuilder(4096);
+
+            report.append("=== TRANSITQ COMPREHENSIVE REPORT ===\n");
+            report.append("Generated: ").append(LocalDateTime.now()).append("\n");
+            report.append("System Uptime: ").append(getUptimeString()).append("\n");
+            report.append("=====================================\n\n");
+
+            report.append("1. PASSENGER STATISTICS\n");
+            report.append("   Total Passengers Served: ").append(servedCount).append("\n");
+            report.append("   Total Fares from Served: ₱");
+            Money.appendTo(report, servedRevenueCentavos).append("\n");
+            report.append("   Current in Ticket Area: ").append(ticketAreaQueue.size()).append("\n");
+            report.append("   Current in Assign Area: ").append(assignAreaQueue.size()).append("\n");
+            report.append("   Total Processed Today: ").append(servedCount +
+                    ticketAreaQueue.size() + assignAreaQueue.size()).append("\n");
+            appendWaitingByDestination(report);
+            report.append("\n");
+
+            report.append("2. BUS OPERATIONS\n");
+            appendBusStatus(report);
+            report.append("\n");
+
+            report.append("3. FINANCIAL SUMMARY\n");
+            appendPaymentReport(report);
+            report.append("\n");
+
+            report.append("4. RECENT ACTIVITY\n");
+            report.append("   Last ").append(RECENT_DEPARTURES_SHOWN).append(" Departures:\n");
+            for (int i = recentDepartures.size() - 1; i >= 0; i--) {
+                report.append("     ").append(recentDepartures.getRecent(i)).append("\n");
+            }
 
-        report.append("=== TRANSITQ COMPREHENSIVE REPORT ===\n");
-        report.append("Generated: ").append(LocalDateTime.now()).append("\n");
-        report.append("System Uptime: ").append(getUptimeString()).append("\n");
-        report.append("=====================================\n\n");
+            report.append("   Last ").append(RECENT_BOARDINGS_SHOWN).append(" Boardings:\n");
+            int shown = Math.min(RECENT_BOARDINGS_SHOWN, servedWindow.size());
+            for (int i = shown - 1; i >= 0; i--) {
+                Passenger p = servedWindow.getRecent(i);
+                report.append("     ID ").append(p.getPassengerId()).append(": ").append(p.getName())
+                        .append(" to ").append(p.getDestination()).append(" (₱");
+                Money.appendTo(report, p.getAmountCentavos()).append(")\n");
+            }
 
-        report.append("1. PASSENGER STATISTICS\n");
-        report.append("   Total Passengers Served: ").append(servedLog.size()).append("\n");
-        report.append("   Current in Ticket Area: ").append(ticketAreaQueue.size()).append("\n");
-        report.append("   Current in Assign Area: ").append(assignAreaQueue.size()).append("\n");
-        report.append("   Total Processed Today: ").append(servedLog.size() +
-                ticketAreaQueue.size() + assignAreaQueue.size()).append("\n\n");
+            return report.toString();
+        } finally {
+            stateLock.unlock();
+        }
+    }
 
-        report.append("2. BUS OPERATIONS\n");
-        report.append(getBusStatusReport()).append("\n");
+    // Calculates system uptime as string
+    private String getUptimeString() {
+        java.time.Duration duration = java.time.Duration.between(systemStartTime, LocalDateTime.now());
+        StringBuilder uptime = new StringBuilder(8);
+        padLeftZero(uptime, duration.toHours()).append(':');
+        padLeftZero(uptime, duration.toMinutes() % 60).append(':');
+        padLeftZero(uptime, duration.getSeconds() % 60);
+        return uptime.toString();
+    }
 
-        report.append("3. FINANCIAL SUMMARY\n");
-        report.append(getPaymentReport()).append("\n");
+    // Appends text padded with spaces to width (left-aligned)
+    private static StringBuilder padRight(StringBuilder sb, String text, int width) {
+        sb.append(text);
+        for (int i = text.length(); i < width; i++) {
+            sb.append(' ');
+        }
+        return sb;
+    }
 
-        report.append("4. RECENT ACTIVITY\n");
-        report.append("   Last 5 Departures:\n");
-        int start = Math.max(0, departureLog.size() - 5);
-        for (int i = start; i < departureLog.size(); i++) {
-            report.append("     ").append(departureLog.get(i)).append("\n");
+    // Appends a number padded with spaces to width (right-aligned)
+    private static StringBuilder padLeft(StringBuilder sb, int value, int width) {
+        for (int i = Integer.toString(value).length(); i < width; i++) {
+            sb.append(' ');
         }
+        return sb.append(value);
+    }
 
-        report.append("   Last 10 Boardings:\n");
-        List<Passenger> recentServed = servedLog.subList(
-                Math.max(0, servedLog.size() - 10), servedLog.size());
-        for (Passenger p : recentServed) {
-            report.append(String.format("     ID %d: %s to %s (₱%s)\n",
-                    p.getPassengerId(), p.getName(), p.getDestination(), p.getMoneyPaid()));
+    // Appends a number as at least two digits
+    private static StringBuilder padLeftZero(StringBuilder sb, long value) {
+        if (value < 10) {
+            sb.append('0');
         }
+        return sb.append(value);
+    }
 
-        return report.toString();
+    // --- Existing Utility Methods ---
+
+    // --- Journal Methods ---
+
+    // Re-applies one replayed journal record (constructor only, no events)
+    private void applyJournalRecord(long lsn, JournalRecord record) {
+        switch (record.getType()) {
+            case JournalRecord.ENQUEUED: {
+                int id = record.getInt();
+                if (passengerStore.contains(id)) {
+                    // Admitted while a snapshot was captured, so already in it
+                    return;
+                }
+                Passenger p = new Passenger(id, record.getString(), record.getString(),
+                        record.getString(), record.getString(), record.getString());
+                if (!tryReserveTicketSlot()) {
+                    System.err.println("Journal record " + lsn + ": ticket area full, passenger "
+                            + p.getPassengerId() + " dropped.");
+                    return;
+                }
+                ticketAreaQueue.offer(p);
+                indexPassenger(p);
+                return;
+            }
+            case JournalRecord.TICKETED: {
+                int id = record.getInt();
+                PaymentVerification verification = new PaymentVerification(id,
+                        PaymentVerification.Status.values()[record.getInt()], record.getLong(), record.getLong(),
+                        record.getLong());
+                if (!ticketAreaQueue.containsId(id)) {
+                    return;
+                }
+                releaseTicketSlot();
+                verificationLog.record(verification);
+                if (!verification.isVerified()) {
+                    unindexPassenger(ticketAreaQueue.removeById(id));
+                    return;
+                }
+                int slot = ticketAreaQueue.moveTo(id, assignAreaQueue);
+                passengerStore.setPaidAt(slot, true);
+                long[] sold = new long[ticketsSold.length];
+                long[] cash = new long[ticketsSold.length];
+                tallyPayment(id, passengerStore.ticketCodeAt(slot), passengerStore.amountAt(slot), sold, cash);
+                applyPayments(sold, cash);
+                return;
+            }
+            case JournalRecord.BOARDED: {
+                Bus bus = buses.get(record.getString());
+                int count = record.getInt();
+                List<Passenger> boarded = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Passenger p = passengerStore.get(record.getInt());
+                    if (p != null && assignAreaQueue.removeById(p.getPassengerId()) != null) {
+                        unindexPassenger(p);
+                        boarded.add(p);
+                    }
+                }
+                if (bus != null && !boarded.isEmpty()) {
+                    bus.reserveSeats(boarded.size());
+                    recordServed(boarded, bus);
+                }
+                return;
+            }
+            case JournalRecord.REMOVED: {
+                int id = record.getInt();
+                Passenger p = passengerStore.get(id);
+                if (p == null) {
+                    return;
+                }
+                PassengerLocation location = passengerStore.locationOf(id);
+                unindexPassenger(p);
+                if (location == PassengerLocation.TICKET_AREA) {
+                    ticketAreaQueue.removeById(id);
+                    releaseTicketSlot();
+                } else {
+                    assignAreaQueue.removeById(id);
+                }
+                return;
+            }
+            case JournalRecord.UPDATED: {
+                Passenger p = passengerStore.get(record.getInt());
+                String newName = record.getString();
+                String newDest = record.getString();
+                String newTicketType = record.getString();
+                if (p != null) {
+                    unindexName(p);
+                    p.setName(newName);
+                    indexName(p);
+                    p.setDestination(newDest);
+                    p.setTicketType(newTicketType);
+                    passengerStore.update(p);
+                }
+                return;
+            }
+            case JournalRecord.PAYMENT_UPDATED: {
+                Passenger p = passengerStore.get(record.getInt());
+                String moneyPaid = record.getString();
+                boolean paid = record.getBoolean();
+                if (p != null) {
+                    p.setMoneyPaid(moneyPaid);
+                    p.setPaid(paid);
+                    passengerStore.update(p);
+                }
+                return;
+            }
+            case JournalRecord.DEPARTED:
+                if (buses.get(currentlyAssignedBusName) != null) {
+                    rotateDepartedBus(record.getLong());
+                }
+                return;
+            case JournalRecord.BUS_ASSIGNED: {
+                String busName = record.getString();
+                if (buses.containsKey(busName)) {
+                    makeActiveBus(busName);
+                }
+                return;
+            }
+            case JournalRecord.BUS_ADDED: {
+                String busName = record.getString();
+                buses.putIfAbsent(busName, new Bus(busName, 10));
+                return;
+            }
+            case JournalRecord.BUS_NAME_AVAILABLE: {
+                String busName = record.getString();
+                if (!availableBusNames.contains(busName)) {
+                    availableBusNames.add(busName);
+                }
+                return;
+            }
+            default:
+                System.err.println("Journal record " + lsn + ": unknown type " + record.getType() + ", skipped.");
+        }
     }
 
-    // Calculates system uptime as string
-    private String getUptimeString() {
-        java.time.Duration duration = java.time.Duration.between(systemStartTime, LocalDateTime.now());
-        long hours = duration.toHours();
-        long minutes = duration.toMinutes() % 60;
-        long seconds = duration.getSeconds() % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+    // Journals a passenger entering the ticket area
+    private void journalEnqueued(Passenger p) {
+        journal.append(enqueuedRecord(p));
     }
 
-    // --- Existing Utility Methods ---
+    // ENQUEUED record for a passenger entering the ticket area
+    private static JournalRecord enqueuedRecord(Passenger p) {
+        return new JournalRecord(JournalRecord.ENQUEUED).putInt(p.getPassengerId()).putString(p.getName())
+                .putString(p.getDestination()).putString(p.getTicketType()).putString(p.getPaymentMethod())
+                .putString(p.getMoneyPaid());
+    }
+
+    // Journals a payment check; a verified passenger moves to the assign area
+    private void journalTicketed(PaymentVerification verification) {
+        journal.append(new JournalRecord(JournalRecord.TICKETED).putInt(verification.getPassengerId())
+                .putInt(verification.getStatus().ordinal()).putLong(verification.getPaidCentavos())
+                .putLong(verification.getRequiredCentavos()).putLong(verification.getTimestampMillis()));
+    }
+
+    // Journals passengers boarding a bus
+    private void journalBoarded(String busName, List<Passenger> boarded) {
+        JournalRecord record = new JournalRecord(JournalRecord.BOARDED).putString(busName).putInt(boarded.size());
+        for (Passenger p : boarded) {
+            record.putInt(p.getPassengerId());
+        }
+        journal.append(record);
+    }
+
+    // Journals a record whose payload is one passenger ID
+    private void journalPassenger(byte type, int id) {
+        journal.append(new JournalRecord(type).putInt(id));
+    }
+
+    // Journals a record whose payload is one bus name
+    private void journalBus(byte type, String busName) {
+        journal.append(new JournalRecord(type).putString(busName));
+    }
+
+    // --- Snapshot Methods ---
+
+    // Captures the state under stateLock, then writes it with the lock
+    // released and drops journal segments the kept snapshots cover. Returns
+    // false if snapshots are off or the write failed.
+    public boolean snapshot() {
+        if (snapshots == null || !journal.isEnabled()) {
+            return false;
+        }
+        synchronized (snapshotLock) {
+            long lsn;
+            byte[] state;
+            stateLock.lock();
+            try {
+                lsn = journal.getLastLsn();
+                if (lsn == lastSnapshotLsn) {
+                    return true;
+                }
+                // Admissions publish and journal in one step under the journal
+                // lock, so every ENQUEUED at or below lsn is already in the ring.
+                // Later admissions drained here are skipped on replay.
+                drainAdmissions();
+                state = captureSnapshot();
+            } catch (IOException e) {
+                System.err.println("Error capturing snapshot: " + e.getMessage());
+                return false;
+            } finally {
+                stateLock.unlock();
+            }
+
+            try {
+                long keepFrom = snapshots.write(lsn, state);
+                lastSnapshotLsn = lsn;
+                journal.truncateBefore(keepFrom + 1);
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error writing snapshot: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    // Restores the newest snapshot that decodes and whose journal tail is
+    // still on disk, falling back to older ones and then to a full replay.
+    // Returns the LSN to replay after (0 for a full replay). Throws if
+    // snapshots exist but none of them, nor the full journal, can be used:
+    // starting from partial state would silently lose data.
+    private long loadSnapshot() {
+        long firstJournalLsn = journal.getFirstLsn();
+        boolean found = false;
+        for (SnapshotStore.Loaded loaded = snapshots.loadNewest(Long.MAX_VALUE); loaded != null;
+                loaded = snapshots.loadNewest(loaded.getLsn())) {
+            found = true;
+            if (firstJournalLsn > loaded.getLsn() + 1) {
+                System.err.println("Snapshot at LSN " + loaded.getLsn() + " is older than the journal (starts at "
+                        + firstJournalLsn + "), skipping it.");
+                continue;
+            }
+            try {
+                restoreSnapshot(loaded.getState());
+                lastSnapshotLsn = loaded.getLsn();
+                return lastSnapshotLsn;
+            } catch (IOException e) {
+                System.err.println("Snapshot at LSN " + loaded.getLsn() + " cannot be restored (" + e
+                        + "), trying an older one.");
+            }
+        }
+        if (firstJournalLsn > 1 || (found && firstJournalLsn == 0)) {
+            throw new IllegalStateException("Journal " + journal.getDirectory() + " cannot be recovered: no usable"
+                    + " snapshot and the journal no longer starts at LSN 1. Move the directory aside to start fresh.");
+        }
+        if (found) {
+            System.err.println("No usable snapshot, replaying the whole journal.");
+        }
+        return 0L;
+    }
+
+    // Schedules periodic snapshots on a background thread
+    private void startSnapshots() {
+        long interval = Long.getLong(SnapshotStore.INTERVAL_PROPERTY, SnapshotStore.DEFAULT_INTERVAL_SECONDS);
+        if (snapshots == null || !journal.isEnabled() || interval <= 0) {
+            return;
+        }
+        snapshotWriter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "transitq-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotWriter.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Encodes the full manager state; caller holds stateLock
+    private byte[] captureSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(Passenger.peekNextId());
+
+        writePassengers(out, ticketAreaQueue);
+        writePassengers(out, assignAreaQueue);
+
+        out.writeInt(buses.size());
+        for (Bus bus : buses.values()) {
+            out.writeUTF(bus.getName());
+            out.writeInt(bus.getCapacity());
+            out.writeInt(bus.getCurrentLoad());
+        }
+        writeStrings(out, busOrder);
+        writeStrings(out, availableBusNames);
+        writeNullable(out, currentlyAssignedBusName);
+        writeNullable(out, newlyGeneratedBus);
+
+        out.writeLong(totalCashCentavos.sum());
+        // Counters are keyed by fare name, not code: codes follow the order of
+        // the fare table, which may have been edited since the snapshot
+        out.writeInt(ticketsSold.length);
+        for (int code = 0; code < ticketsSold.length; code++) {
+            out.writeUTF(fareTable.getName(code));
+            out.writeLong(ticketsSold[code].sum());
+            out.writeLong(cashByTicketType[code].sum());
+        }
+
+        out.writeLong(servedCount);
+        out.writeLong(servedRevenueCentavos);
+        long[] served = servedIds.toLongArray();
+        out.writeInt(served.length);
+        for (long word : served) {
+            out.writeLong(word);
+        }
+        writeStrings(out, servedPredefinedKeys);
+        List<Passenger> window = new ArrayList<>(servedWindow.size());
+        for (int i = servedWindow.size() - 1; i >= 0; i--) {
+            window.add(servedWindow.getRecent(i));
+        }
+        writePassengers(out, window);
+
+        List<String> departures = new ArrayList<>(recentDepartures.size());
+        for (int i = recentDepartures.size() - 1; i >= 0; i--) {
+            departures.add(recentDepartures.getRecent(i));
+        }
+        writeStrings(out, departures);
+
+        out.writeLong(verificationLog.getTotalRecorded());
+        out.writeInt(verificationLog.size());
+        for (int i = verificationLog.size() - 1; i >= 0; i--) {
+            PaymentVerification v = verificationLog.getRecent(i);
+            out.writeInt(v.getPassengerId());
+            out.writeInt(v.getStatus().ordinal());
+            out.writeLong(v.getPaidCentavos());
+            out.writeLong(v.getRequiredCentavos());
+            out.writeLong(v.getTimestampMillis());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Decodes a snapshot into the freshly constructed manager (constructor
+    // only). The whole snapshot is parsed and checked before anything is
+    // applied, so a damaged one throws and leaves the manager untouched.
+    private void restoreSnapshot(byte[] state) throws IOException {
+        List<Passenger> ticketArea;
+        List<Passenger> assignArea;
+        List<Bus> restoredBuses = new ArrayList<>();
+        List<String> restoredBusOrder;
+        List<String> restoredAvailable;
+        String restoredAssigned;
+        String restoredNewBus;
+        int nextPassengerId;
+        long totalCash;
+        long[] sold;
+        long[] cash;
+        long restoredServedCount;
+        long restoredServedRevenue;
+        long[] served;
+        List<String> restoredPredefinedKeys;
+        List<Passenger> window;
+        List<String> departures;
+        long totalVerifications;
+        List<PaymentVerification> verifications;
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(state));
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("unsupported snapshot version " + version);
+            }
+            nextPassengerId = in.readInt();
+            ticketArea = readPassengers(in);
+            assignArea = readPassengers(in);
+
+            int busCount = in.readInt();
+            for (int i = 0; i < busCount; i++) {
+                Bus bus = new Bus(in.readUTF(), in.readInt());
+                int load = in.readInt();
+                if (load < 0 || bus.reserveSeats(load) != load) {
+                    throw new IOException("bus " + bus.getName() + " load " + load + " exceeds its capacity");
+                }
+                restoredBuses.add(bus);
+            }
+            restoredBusOrder = readStrings(in);
+            restoredAvailable = readStrings(in);
+            restoredAssigned = readNullable(in);
+            restoredNewBus = readNullable(in);
+
+            totalCash = in.readLong();
+            int fares = in.readInt();
+            sold = new long[fareTable.size()];
+            cash = new long[fareTable.size()];
+            for (int i = 0; i < fares; i++) {
+                String fareName = in.readUTF();
+                if (!fareTable.isKnown(fareName)) {
+                    throw new IOException("fare " + fareName + " is not in the current fare table");
+                }
+                int code = fareTable.codeOf(fareName);
+                sold[code] += in.readLong();
+                cash[code] += in.readLong();
+            }
+
+            restoredServedCount = in.readLong();
+            restoredServedRevenue = in.readLong();
+            served = new long[in.readInt()];
+            for (int i = 0; i < served.length; i++) {
+                served[i] = in.readLong();
+            }
+            restoredPredefinedKeys = readStrings(in);
+            window = readPassengers(in);
+            departures = readStrings(in);
+
+            totalVerifications = in.readLong();
+            int verificationCount = in.readInt();
+            verifications = new ArrayList<>(verificationCount);
+            for (int i = 0; i < verificationCount; i++) {
+                verifications.add(new PaymentVerification(in.readInt(),
+                        PaymentVerification.Status.values()[in.readInt()], in.readLong(), in.readLong(),
+                        in.readLong()));
+            }
+            if (in.available() != 0) {
+                throw new IOException(in.available() + " unexpected trailing bytes");
+            }
+        } catch (RuntimeException e) {
+            // Negative sizes, bad enum ordinals and the like
+            throw new IOException("malformed snapshot: " + e, e);
+        }
+        if (ticketArea.size() > TICKET_AREA_CAPACITY) {
+            throw new IOException("ticket area holds " + ticketArea.size() + " passengers");
+        }
+
+        // Everything parsed: apply it
+        Passenger.advanceNextId(nextPassengerId);
+        for (Passenger p : ticketArea) {
+            ticketAreaQueue.offer(p);
+            indexPassenger(p);
+        }
+        ticketAreaSlots.tryAcquire(ticketArea.size());
+        for (Passenger p : assignArea) {
+            assignAreaQueue.offer(p);
+            indexPassenger(p);
+        }
+        buses.clear();
+        for (Bus bus : restoredBuses) {
+            buses.put(bus.getName(), bus);
+        }
+        busOrder = restoredBusOrder;
+        availableBusNames = restoredAvailable;
+        currentlyAssignedBusName = restoredAssigned;
+        newlyGeneratedBus = restoredNewBus;
+        totalCashCentavos.add(totalCash);
+        for (int code = 0; code < ticketsSold.length; code++) {
+            ticketsSold[code].add(sold[code]);
+            cashByTicketType[code].add(cash[code]);
+        }
+        servedCount = restoredServedCount;
+        servedRevenueCentavos = restoredServedRevenue;
+        servedIds.or(BitSet.valueOf(served));
+        servedPredefinedKeys.addAll(restoredPredefinedKeys);
+        for (Passenger p : window) {
+            servedWindow.add(p);
+        }
+        for (String departure : departures) {
+            recentDepartures.add(departure);
+        }
+        verificationLog.restore(verifications, totalVerifications);
+    }
+
+    private static void writePassengers(DataOutputStream out, java.util.Collection<Passenger> passengers)
+            throws IOException {
+        out.writeInt(passengers.size());
+        for (Passenger p : passengers) {
+            out.writeInt(p.getPassengerId());
+            writeNullable(out, p.getName());
+            writeNullable(out, p.getDestination());
+            writeNullable(out, p.getTicketType());
+            writeNullable(out, p.getPaymentMethod());
+            writeNullable(out, p.getMoneyPaid());
+            out.writeBoolean(p.isPaid());
+        }
+    }
+
+    private static List<Passenger> readPassengers(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<Passenger> passengers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Passenger p = new Passenger(in.readInt(), readNullable(in), readNullable(in), readNullable(in),
+                    readNullable(in), readNullable(in));
+            p.setPaid(in.readBoolean());
+            passengers.add(p);
+        }
+        return passengers;
+    }
+
+    private static void writeStrings(DataOutputStream out, java.util.Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // --- Event Listeners ---
+
+    // Subscribes a listener to domain events
+    public void addListener(TransitQListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    // Unsubscribes a listener
+    public void removeListener(TransitQListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Delivers an event to every listener, or queues it for deliverEvents() if
+    // this thread holds stateLock
+    private void fire(Consumer<TransitQListener> event) {
+        if (stateLock.isHeldByCurrentThread()) {
+            pendingEvents.get().add(event);
+            return;
+        }
+        deliver(event);
+    }
+
+    // Delivers the events this thread queued under stateLock, in order; called
+    // after unlock (a no-op while an outer call still holds the lock)
+    private void deliverEvents() {
+        if (stateLock.isHeldByCurrentThread()) {
+            return;
+        }
+        List<Consumer<TransitQListener>> queued = pendingEvents.get();
+        if (queued.isEmpty()) {
+            return;
+        }
+        // Copied first: a listener calling back into the manager queues its own events
+        List<Consumer<TransitQListener>> events = new ArrayList<>(queued);
+        queued.clear();
+        for (Consumer<TransitQListener> event : events) {
+            deliver(event);
+        }
+    }
+
+    // Runs one event on every listener; a failing listener does not stop the others
+    private void deliver(Consumer<TransitQListener> event) {
+        for (TransitQListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                System.err.println("Error in TransitQ listener: " + e);
+            }
+        }
+    }
+
+    // --- Passenger Status ---
+
+    // Returns stage, queue position and estimated wait of a passenger in O(log n)
+    public PassengerStatus getPassengerStatus(int id) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            PassengerLocation location = passengerStore.locationOf(id);
+            if (location == PassengerLocation.TICKET_AREA) {
+                int position = ticketAreaQueue.positionOf(id);
+                return new PassengerStatus(id, PassengerStatus.Stage.TICKET_AREA, position,
+                        ticketAreaQueue.size(), ticketServiceRate.estimateWaitSeconds(position));
+            }
+            if (location == PassengerLocation.ASSIGN_AREA) {
+                int position = assignAreaQueue.positionOf(id);
+                return new PassengerStatus(id, PassengerStatus.Stage.ASSIGN_AREA, position,
+                        assignAreaQueue.size(), boardingServiceRate.estimateWaitSeconds(position));
+            }
+            PassengerStatus.Stage stage = id >= 0 && servedIds.get(id)
+                    ? PassengerStatus.Stage.BOARDED
+                    : PassengerStatus.Stage.NOT_FOUND;
+            return new PassengerStatus(id, stage, -1, 0, PassengerStatus.UNKNOWN_WAIT);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Pushes the passenger's status now and whenever it changes, until it is final.
+    // Returns the subscription; pass it to removeListener to stop early.
+    public TransitQListener subscribeToStatus(int id, PassengerStatusListener listener) {
+        StatusSubscription subscription = new StatusSubscription(id, listener);
+        listeners.add(subscription);
+        subscription.refresh();
+        return subscription;
+    }
+
+    // Recomputes one passenger's status on queue events and pushes it when it changes
+    private final class StatusSubscription implements TransitQListener {
+        private final int passengerId;
+        private final PassengerStatusListener listener;
+        // Written under stateLock; volatile because lastStage() reads it
+        // without the lock from kiosk threads delivering onPassengerEnqueued
+        private volatile PassengerStatus lastStatus;
+
+        StatusSubscription(int passengerId, PassengerStatusListener listener) {
+            this.passengerId = passengerId;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onPassengerEnqueued(Passenger passenger) {
+            if (lastStage() == PassengerStatus.Stage.TICKET_AREA) {
+                refresh();
+            }
+        }
+
+        @Override
+        public void onPassengerVerified(Passenger passenger, PaymentVerification verification) {
+            refresh();
+        }
+
+        @Override
+        public void onPassengerRejected(Passenger passenger, PaymentVerification verification) {
+            if (lastStage() == PassengerStatus.Stage.TICKET_AREA) {
+                refresh();
+            }
+        }
+
+        @Override
+        public void onPassengersBoarded(String busName, List<Passenger> boarded, int busLoad, int busCapacity) {
+            if (lastStage() == PassengerStatus.Stage.ASSIGN_AREA) {
+                refresh();
+            }
+        }
+
+        @Override
+        public void onPassengerRemoved(Passenger passenger, PassengerLocation fromLocation) {
+            refresh();
+        }
+
+        private PassengerStatus.Stage lastStage() {
+            PassengerStatus status = lastStatus;
+            return status == null ? null : status.getStage();
+        }
+
+        // Reads the status under stateLock and pushes it after unlock; the
+        // subscription's monitor keeps pushes in the order they were read
+        synchronized void refresh() {
+            PassengerStatus status;
+            stateLock.lock();
+            try {
+                status = getPassengerStatus(passengerId);
+                if (status.equals(lastStatus)) {
+                    return;
+                }
+                lastStatus = status;
+                if (status.isFinal()) {
+                    listeners.remove(this);
+                }
+            } finally {
+                stateLock.unlock();
+            }
+            listener.onStatusChanged(status);
+        }
+    }
 
     // --- Getters and Setters ---
 
     // Returns copy of ticket area queue
     public Queue<Passenger> getTicketAreaQueue() {
-        return new LinkedList<>(ticketAreaQueue);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new LinkedList<>(ticketAreaQueue);
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Returns copy of assign area queue
     public Queue<Passenger> getAssignAreaQueue() {
-        return new LinkedList<>(assignAreaQueue);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new LinkedList<>(assignAreaQueue);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Returns ticket area passengers in queue order as a random-access snapshot
+    public List<Passenger> getTicketAreaPassengers() {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new ArrayList<>(ticketAreaQueue);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Returns assign area passengers in queue order as a random-access snapshot
+    public List<Passenger> getAssignAreaPassengers() {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new ArrayList<>(assignAreaQueue);
+        } finally {
+            stateLock.unlock();
+        }
     }
 
-    // Returns copy of served passengers log
+    // Returns copy of the recently served passengers (oldest first, bounded window)
     public List<Passenger> getServedLog() {
-        return new ArrayList<>(servedLog);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            List<Passenger> recent = new ArrayList<>(servedWindow.size());
+            for (int i = servedWindow.size() - 1; i >= 0; i--) {
+                recent.add(servedWindow.getRecent(i));
+            }
+            return recent;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Returns number of passengers served since startup
+    public long getServedCount() {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return servedCount;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Boardings and revenue from the served archive for boarded-at in
+    // [fromMillis, toMillis). Reads the mapped archive files, not manager
+    // state, so no lock is taken.
+    public ArchiveSummary getArchiveSummary(long fromMillis, long toMillis) {
+        return servedArchive.summarize(fromMillis, toMillis);
+    }
+
+    // Text report of the served archive from local midnight `days - 1` days ago
+    // to now (days = 1 is the end-of-day report)
+    public String getArchiveReport(int days) {
+        if (!servedArchive.isEnabled()) {
+            return "ERROR: The served archive is disabled.";
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        long from = LocalDate.now(zone).minusDays(Math.max(1, days) - 1L).atStartOfDay(zone)
+                .toInstant().toEpochMilli();
+        ArchiveSummary summary = servedArchive.summarize(from, Long.MAX_VALUE);
+
+        StringBuilder report = new StringBuilder(1024);
+        report.append("=== SERVED ARCHIVE REPORT ===\n");
+        report.append("Since: ").append(LocalDateTime.ofInstant(Instant.ofEpochMilli(from), zone)).append("\n");
+        report.append("Passengers Boarded: ").append(summary.getBoardedCount()).append(" (of ")
+                .append(summary.getRowsScanned()).append(" archived)\n");
+        report.append("Revenue: ₱");
+        Money.appendTo(report, summary.getRevenueCentavos()).append("\n");
+        report.append("By Destination:\n");
+        appendArchiveTotals(report, summary.getByDestination());
+        report.append("By Ticket Type:\n");
+        appendArchiveTotals(report, summary.getByTicketType());
+        report.append("=============================\n");
+        return report.toString();
+    }
+
+    // Appends one breakdown (destination or ticket type) of an archive report
+    private static void appendArchiveTotals(StringBuilder report, Map<String, ArchiveSummary.Total> totals) {
+        for (Map.Entry<String, ArchiveSummary.Total> entry : totals.entrySet()) {
+            report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue().getCount())
+                    .append(" passengers, ₱");
+            Money.appendTo(report, entry.getValue().getRevenueCentavos()).append("\n");
+        }
+    }
+
+    // Returns total fares paid by served passengers, in centavos
+    public long getServedRevenueCentavos() {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return servedRevenueCentavos;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Checks if the passenger ID has boarded a bus
+    public boolean isPassengerServed(int id) {
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return id >= 0 && servedIds.get(id);
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Returns ticket area capacity
@@ -694,52 +2237,105 @@ public class TransitQManager {
         return ASSIGN_AREA_DISPLAY_CAPACITY;
     }
 
+    // Returns ticket area occupancy (queued plus admitted) without locking
+    public int getTicketAreaSize() {
+        return TICKET_AREA_CAPACITY - ticketAreaSlots.availablePermits();
+    }
+
     public int getAssignAreaCurrentSize() {
-        return assignAreaQueue.size();
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return assignAreaQueue.size();
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Returns currently assigned bus name
     public String getCurrentlyAssignedBusName() {
-        return currentlyAssignedBusName;
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return currentlyAssignedBusName;
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Returns copy of buses map
     public Map<String, Bus> getBuses() {
-        return new LinkedHashMap<>(buses);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new LinkedHashMap<>(buses);
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Returns copy of bus order list
     public List<String> getBusOrder() {
-        return new ArrayList<>(busOrder);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new ArrayList<>(busOrder);
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Gets newly generated bus name and resets it
     public String getNewlyGeneratedBus() {
-        String newBus = newlyGeneratedBus;
-        newlyGeneratedBus = null;
-        return newBus;
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            String newBus = newlyGeneratedBus;
+            newlyGeneratedBus = null;
+            return newBus;
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Checks if current bus can depart (must be full)
     public boolean canDepartBus() {
-        Bus currentBus = buses.get(currentlyAssignedBusName);
-        return currentBus != null && currentBus.isFull();
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Bus currentBus = buses.get(currentlyAssignedBusName);
+            return currentBus != null && currentBus.isFull();
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Checks if current bus is full
     public boolean isCurrentBusFull() {
-        Bus currentBus = buses.get(currentlyAssignedBusName);
-        return currentBus != null && currentBus.getCurrentLoad() >= currentBus.getCapacity();
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            Bus currentBus = buses.get(currentlyAssignedBusName);
+            return currentBus != null && currentBus.getCurrentLoad() >= currentBus.getCapacity();
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Assigns a bus to active status
     public void assignBus(String busName) {
-        if (buses.containsKey(busName)) {
-            this.currentlyAssignedBusName = busName;
-            if (busOrder.contains(busName)) {
-                busOrder.remove(busName);
-                busOrder.add(0, busName);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (buses.containsKey(busName)) {
+                journalBus(JournalRecord.BUS_ASSIGNED, busName);
+                makeActiveBus(busName);
+                fire(l -> l.onBusAssigned(busName));
             }
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
     }
 
@@ -747,144 +2343,182 @@ public class TransitQManager {
 
     // Adds specified number of predefined passengers to ticket area
     public String addPredefinedPassengers(int count) {
-        if (predefinedPassengers.isEmpty()) {
-            return "ALERT: No more predefined passengers available.";
-        }
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (predefinedPassengers.isEmpty()) {
+                return "ALERT: No more predefined passengers available.";
+            }
 
-        int added = 0;
-        int failed = 0;
+            int added = 0;
+            int failed = 0;
 
-        for (Passenger passenger : predefinedPassengers) {
-            if (added >= count)
-                break;
+            for (Passenger passenger : predefinedPassengers) {
+                if (added >= count)
+                    break;
 
-            boolean alreadyInSystem = isPassengerInSystem(passenger);
+                boolean alreadyInSystem = isPassengerInSystem(passenger);
+
+                if (!alreadyInSystem && tryReserveTicketSlot()) {
+                    Passenger newPassenger = new Passenger(
+                            passenger.getName(),
+                            passenger.getDestination(),
+                            passenger.getTicketType(),
+                            "Cash",
+                            passenger.getMoneyPaid());
+                    journalEnqueued(newPassenger);
+                    ticketAreaQueue.offer(newPassenger);
+                    indexPassenger(newPassenger);
+                    fire(l -> l.onPassengerEnqueued(newPassenger));
+                    added++;
+                } else if (alreadyInSystem) {
+                    failed++;
+                }
+            }
 
-            if (!alreadyInSystem && ticketAreaQueue.size() < TICKET_AREA_CAPACITY) {
-                Passenger newPassenger = new Passenger(
-                        passenger.getName(),
-                        passenger.getDestination(),
-                        passenger.getTicketType(),
-                        "Cash",
-                        passenger.getMoneyPaid());
-                ticketAreaQueue.offer(newPassenger);
-                added++;
-            } else if (alreadyInSystem) {
-                failed++;
+            String message = "ADDED: " + added + " predefined passenger(s) to Ticket Area.";
+            if (failed > 0) {
+                message += " " + failed + " passenger(s) were already in the system.";
+            }
+            if (getTicketAreaSize() >= TICKET_AREA_CAPACITY) {
+                message += " Ticket Area is now full.";
             }
-        }
 
-        String message = "ADDED: " + added + " predefined passenger(s) to Ticket Area.";
-        if (failed > 0) {
-            message += " " + failed + " passenger(s) were already in the system.";
-        }
-        if (ticketAreaQueue.size() >= TICKET_AREA_CAPACITY) {
-            message += " Ticket Area is now full.";
+            return message;
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+            deliverEvents();
         }
-
-        return message;
     }
 
     // Checks if passenger is already in the system
     private boolean isPassengerInSystem(Passenger passenger) {
-        for (Passenger p : ticketAreaQueue) {
-            if (p.getName().equals(passenger.getName()) &&
-                    p.getDestination().equals(passenger.getDestination())) {
-                return true;
-            }
-        }
-
-        for (Passenger p : assignAreaQueue) {
-            if (p.getName().equals(passenger.getName()) &&
-                    p.getDestination().equals(passenger.getDestination())) {
-                return true;
-            }
-        }
-
-        for (Passenger p : servedLog) {
-            if (p.getName().equals(passenger.getName()) &&
-                    p.getDestination().equals(passenger.getDestination())) {
-                return true;
+        List<Integer> queued = nameIndex.get(nameKey(passenger.getName()));
+        if (queued != null) {
+            for (int id : queued) {
+                if (passengerStore.hasDestinationOf(id, passenger) &&
+                        passenger.getName().equals(passengerStore.nameOf(id))) {
+                    return true;
+                }
             }
         }
 
-        return false;
+        return servedPredefinedKeys.contains(servedKey(passenger));
     }
 
     // Returns count of remaining available predefined passengers
     public int getRemainingPredefinedPassengers() {
-        int available = 0;
-        for (Passenger passenger : predefinedPassengers) {
-            if (!isPassengerInSystem(passenger)) {
-                available++;
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            int available = 0;
+            for (Passenger passenger : predefinedPassengers) {
+                if (!isPassengerInSystem(passenger)) {
+                    available++;
+                }
             }
+            return available;
+        } finally {
+            stateLock.unlock();
         }
-        return available;
     }
 
     // Generates info about predefined passengers
     public String getPredefinedPassengersInfo() {
-        StringBuilder info = new StringBuilder();
-        info.append("=== Predefined Passengers (Total: ").append(predefinedPassengers.size()).append(") ===\n");
-
-        for (int i = 0; i < predefinedPassengers.size(); i++) {
-            Passenger p = predefinedPassengers.get(i);
-            boolean inSystem = isPassengerInSystem(p);
-            String status = inSystem ? "[IN SYSTEM]" : "[AVAILABLE]";
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            StringBuilder info = new StringBuilder();
+            info.append("=== Predefined Passengers (Total: ").append(predefinedPassengers.size()).append(") ===\n");
+
+            for (int i = 0; i < predefinedPassengers.size(); i++) {
+                Passenger p = predefinedPassengers.get(i);
+                boolean inSystem = isPassengerInSystem(p);
+                String status = inSystem ? "[IN SYSTEM]" : "[AVAILABLE]";
+
+                info.append(i + 1).append(". ").append(status).append(" ")
+                        .append(p.getName()).append(" -> ").append(p.getDestination())
+                        .append(" (").append(p.getTicketType()).append(") - ₱").append(p.getMoneyPaid())
+                        .append("\n");
+            }
 
-            info.append(i + 1).append(". ").append(status).append(" ")
-                    .append(p.getName()).append(" -> ").append(p.getDestination())
-                    .append(" (").append(p.getTicketType()).append(") - ₱").append(p.getMoneyPaid())
-                    .append("\n");
+            return info.toString();
+        } finally {
+            stateLock.unlock();
         }
-
-        return info.toString();
     }
 
     // Returns copy of predefined passengers list
     public List<Passenger> getPredefinedPassengers() {
-        return new ArrayList<>(predefinedPassengers);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new ArrayList<>(predefinedPassengers);
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Checks if any predefined passengers are available
     public boolean hasAvailablePredefinedPassengers() {
-        return getRemainingPredefinedPassengers() > 0;
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return getRemainingPredefinedPassengers() > 0;
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // Debug method - prints bus status to console
     public void printBusStatus() {
-        System.out.println("=== Bus Status ===");
-        System.out.println("Current assigned bus: " + currentlyAssignedBusName);
-        System.out.println("Bus order: " + busOrder);
-        System.out.println("Available bus names: " + availableBusNames);
-        System.out.println("All buses: " + buses.keySet());
-        for (String busName : busOrder) {
-            Bus bus = buses.get(busName);
-            if (bus != null) {
-                System.out.println(busName + ": " + bus.getCurrentLoad() + "/" + bus.getCapacity() +
-                        " (Full: " + bus.isFull() + ")");
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            System.out.println("=== Bus Status ===");
+            System.out.println("Current assigned bus: " + currentlyAssignedBusName);
+            System.out.println("Bus order: " + busOrder);
+            System.out.println("Available bus names: " + availableBusNames);
+            System.out.println("All buses: " + buses.keySet());
+            for (String busName : busOrder) {
+                Bus bus = buses.get(busName);
+                if (bus != null) {
+                    System.out.println(busName + ": " + bus.getCurrentLoad() + "/" + bus.getCapacity() +
+                            " (Full: " + bus.isFull() + ")");
+                }
             }
+            System.out.println("==================");
+        } finally {
+            stateLock.unlock();
         }
-        System.out.println("==================");
     }
 
     // Adds a bus with custom name and fixed capacity of 10
     public String addManualBus(String busName) {
-        if (busName == null || busName.trim().isEmpty()) {
-            return "ERROR: Bus name cannot be empty.";
-        }
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (busName == null || busName.trim().isEmpty()) {
+                return "ERROR: Bus name cannot be empty.";
+            }
 
-        String formattedName = busName.trim().toUpperCase();
+            String formattedName = busName.trim().toUpperCase();
 
-        // Check if bus already exists
-        if (buses.containsKey(formattedName)) {
-            return "ERROR: Bus " + formattedName + " already exists.";
-        }
+            // Check if bus already exists
+            if (buses.containsKey(formattedName)) {
+                return "ERROR: Bus " + formattedName + " already exists.";
+            }
 
-        // Create and add the new bus with fixed capacity of 10
-        buses.put(formattedName, new Bus(formattedName, 10));
+            // Create and add the new bus with fixed capacity of 10
+            journalBus(JournalRecord.BUS_ADDED, formattedName);
+            buses.put(formattedName, new Bus(formattedName, 10));
 
-        return "SUCCESS: Bus " + formattedName + " added to system. Capacity: 10 passengers.";
+            return "SUCCESS: Bus " + formattedName + " added to system. Capacity: 10 passengers.";
+        } finally {
+            stateLock.unlock();
+            journal.commit();
+        }
     }
 
     // Check if bus name is valid
@@ -897,13 +2531,27 @@ public class TransitQManager {
 
     // Get list of all bus names
     public List<String> getAllBusNames() {
-        return new ArrayList<>(buses.keySet());
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            return new ArrayList<>(buses.keySet());
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     // add available bus name back to available list
     public void addAvailableBusName(String busName) {
-        if (availableBusNames != null && !availableBusNames.contains(busName)) {
-            availableBusNames.add(busName);
+        stateLock.lock();
+        try {
+            drainAdmissions();
+            if (availableBusNames != null && !availableBusNames.contains(busName)) {
+                journalBus(JournalRecord.BUS_NAME_AVAILABLE, busName);
+                availableBusNames.add(busName);
+            }
+        } finally {
+            stateLock.unlock();
+            journal.commit();
         }
     }
 
@@ -0,0 +1,120 @@
+package models;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Bounded log of payment verifications. The newest entries live in a fixed
+// ring, so memory stays flat and "last N" is a constant-time read. When a spill
+// file is configured, entries pushed out of the ring are appended to it as
+// tab-separated records instead of being dropped. Callers hold the manager's
+// stateLock.
+public class VerificationLog {
+
+    // Set to a file path to keep evicted verifications on disk
+    public static final String SPILL_PROPERTY = "transitq.verificationSpill";
+
+    private static final int FLUSH_EVERY = 64;
+
+    private final RecentRing<PaymentVerification> recent;
+    private final Path spillPath;
+    private boolean spillEnabled;
+    private BufferedWriter spillWriter;
+    private int unflushed;
+    private long totalRecorded;
+
+    public VerificationLog(int capacity, Path spillPath) {
+        this.recent = new RecentRing<>(capacity);
+        this.spillPath = spillPath;
+        this.spillEnabled = spillPath != null;
+    }
+
+    // Creates a log that spills to the file named by SPILL_PROPERTY, if set
+    public static VerificationLog fromSystemProperties(int capacity) {
+        String path = System.getProperty(SPILL_PROPERTY);
+        return new VerificationLog(capacity, path == null || path.isBlank() ? null : Paths.get(path));
+    }
+
+    // Records a verification; the oldest entry is spilled or dropped when full
+    public void record(PaymentVerification entry) {
+        PaymentVerification evicted = recent.add(entry);
+        totalRecorded++;
+        if (evicted != null && spillEnabled) {
+            spill(evicted);
+        }
+    }
+
+    // Returns the i-th most recent verification (0 = newest)
+    public PaymentVerification getRecent(int i) {
+        return recent.getRecent(i);
+    }
+
+    // Number of verifications held in memory
+    public int size() {
+        return recent.size();
+    }
+
+    // Number of verifications recorded since startup, including evicted ones
+    public long getTotalRecorded() {
+        return totalRecorded;
+    }
+
+    // Replaces the in-memory entries (oldest first) and the running total,
+    // when the manager restores a snapshot
+    void restore(List<PaymentVerification> oldestFirst, long total) {
+        recent.clear();
+        for (PaymentVerification entry : oldestFirst) {
+            recent.add(entry);
+        }
+        totalRecorded = total;
+    }
+
+    // Writes any buffered spill records to disk
+    public void flush() {
+        if (spillWriter == null) {
+            return;
+        }
+        try {
+            spillWriter.flush();
+            unflushed = 0;
+        } catch (IOException e) {
+            System.err.println("Error flushing verification spill file: " + e.getMessage());
+        }
+    }
+
+    // Appends an evicted entry to the spill file; disables spilling on I/O failure
+    private void spill(PaymentVerification entry) {
+        try {
+            if (spillWriter == null) {
+                spillWriter = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "verification-spill-flush"));
+            }
+            spillWriter.append(entry.appendRecordTo(new StringBuilder(48))).append('\n');
+            if (++unflushed >= FLUSH_EVERY) {
+                spillWriter.flush();
+                unflushed = 0;
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing verification spill file, spilling disabled: " + e.getMessage());
+            spillEnabled = false;
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException ignored) {
+                // already failing; nothing more to report
+            }
+        }
+        spillWriter = null;
+    }
+}
@@ -0,0 +1,92 @@
+package models;
+
+import static models.TestSupport.check;
+import static models.TestSupport.checkEquals;
+import static models.TestSupport.crashCopy;
+import static models.TestSupport.openManager;
+import static models.TestSupport.state;
+import static models.TestSupport.tempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+// Crash recovery from the write-ahead journal alone (no snapshot): a crashed
+// manager's directory must replay to the state it had, and a torn last record
+// must be cut off without losing the records before it.
+public class JournalRecoveryTest {
+
+    public static void main(String[] args) throws IOException {
+        replayRestoresLiveState();
+        tornTailIsCutOff();
+        System.out.println("JournalRecoveryTest: PASS");
+    }
+
+    // Every kind of mutation, replayed from the journal, gives the same queues
+    // and buses as the live manager
+    static void replayRestoresLiveState() throws IOException {
+        Path dir = tempDir("transitq-replay");
+        TransitQManager live = openManager(dir);
+        runMixedWorkload(live);
+        String expected = state(live);
+
+        TransitQManager recovered = openManager(crashCopy(dir));
+        checkEquals(expected, state(recovered), "replayed state");
+    }
+
+    // A record cut short by a crash is dropped; the records before it replay
+    // and the journal keeps appending from the cut
+    static void tornTailIsCutOff() throws IOException {
+        Path dir = tempDir("transitq-torn");
+        TransitQManager live = openManager(dir);
+        runMixedWorkload(live);
+        String beforeLastRecord = state(live);
+        String added = live.addPassengerToTicketArea(new Passenger("Torn Tail", "Airport", "Standard", "Cash",
+                "50.00"));
+        check(added.startsWith("ENQUEUE:"), "last admission failed: " + added);
+
+        Path crashed = crashCopy(dir);
+        Path tail = newestSegment(crashed);
+        try (FileChannel channel = FileChannel.open(tail, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        TransitQManager recovered = openManager(crashed);
+        checkEquals(beforeLastRecord, state(recovered), "state after torn tail");
+
+        recovered.addPassengerToTicketArea(new Passenger("After Cut", "Downtown", "Standard", "Cash", "50.00"));
+        String afterCut = state(recovered);
+        TransitQManager again = openManager(crashCopy(crashed));
+        checkEquals(afterCut, state(again), "state appended after the cut");
+    }
+
+    // Ticketing, rejection, boarding, departure, removal and edits
+    private static void runMixedWorkload(TransitQManager manager) {
+        manager.addPassengerToTicketArea(new Passenger("Ana Reyes", "Cubao", "Standard", "Cash", "50.00"));
+        manager.addPassengerToTicketArea(new Passenger("Short Pay", "Airport", "VIP", "Cash", "1.00"));
+        manager.processUpTo(6);
+        manager.boardUpTo(4);
+        manager.departBus();
+        manager.processUpTo(3);
+
+        Passenger head = manager.getTicketAreaQueue().peek();
+        check(head != null, "ticket area emptied too early");
+        manager.removePassenger(head.getPassengerId());
+
+        Passenger edited = manager.getTicketAreaQueue().peek();
+        manager.updatePassenger(edited.getPassengerId(), "Edited Name", "Baclaran", "VIP");
+        manager.updatePassengerPayment(edited.getPassengerId(), "150.00", false);
+        manager.boardUpTo(2);
+    }
+
+    private static Path newestSegment(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg"))
+                    .max(Path::compareTo)
+                    .orElseThrow(() -> new AssertionError("no journal segment in " + dir));
+        }
+    }
+}
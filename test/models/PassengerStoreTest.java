@@ -0,0 +1,178 @@
+package models;
+
+import static models.TestSupport.check;
+import static models.TestSupport.checkEquals;
+import static models.TestSupport.crashCopy;
+import static models.TestSupport.openManager;
+import static models.TestSupport.state;
+import static models.TestSupport.tempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+// The struct-of-arrays passenger store and the queues threaded through it:
+// FIFO order and positions survive slot reuse, edits only stick once written
+// back, and passengers admitted concurrently from several kiosks reach the
+// ticket area (and the journal) in one consistent order.
+public class PassengerStoreTest {
+
+    private static final int KIOSKS = 3;
+    private static final int PER_KIOSK = 5;
+    private static final int ROUNDS = 40;
+
+    public static void main(String[] args) throws Exception {
+        queuesKeepOrderAcrossSlotReuse();
+        storeHandsOutCopies();
+        concurrentAdmissionsKeepFifoOrder();
+        destinationsPastThePoolLimitKeepTheirText();
+        System.out.println("PassengerStoreTest: PASS");
+    }
+
+    static void queuesKeepOrderAcrossSlotReuse() {
+        PassengerStore store = new PassengerStore();
+        PassengerQueue ticket = new PassengerQueue(store, PassengerLocation.TICKET_AREA);
+        PassengerQueue assign = new PassengerQueue(store, PassengerLocation.ASSIGN_AREA);
+        List<Integer> expected = new ArrayList<>();
+
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 7; i++) {
+                Passenger p = new Passenger("P" + round + "-" + i, "Cubao", "Standard", "Cash", "50.00");
+                check(ticket.offer(p), "offer refused");
+                expected.add(p.getPassengerId());
+            }
+            // Move the head to the other queue and drop one from the middle
+            Passenger head = ticket.poll();
+            check(head.getPassengerId() == expected.remove(0), "poll is not FIFO");
+            check(assign.offer(head), "offer to the assign area refused");
+            int middle = expected.remove(expected.size() / 2);
+            check(ticket.removeById(middle) != null, "removeById missed a queued passenger");
+            check(!ticket.offer(ticket.peek()), "a stored ID was accepted twice");
+        }
+
+        check(ticket.size() == expected.size(), "size drifted");
+        int position = 1;
+        for (Passenger p : ticket) {
+            check(p.getPassengerId() == expected.get(position - 1), "iteration order broken at " + position);
+            check(ticket.positionOf(p.getPassengerId()) == position, "position wrong at " + position);
+            check(store.locationOf(p.getPassengerId()) == PassengerLocation.TICKET_AREA, "stage wrong");
+            position++;
+        }
+        check(assign.size() == 50 && store.size() == ticket.size() + assign.size(), "store size drifted");
+        check(!ticket.containsId(assign.peek().getPassengerId()), "queues see each other's passengers");
+    }
+
+    static void storeHandsOutCopies() {
+        PassengerStore store = new PassengerStore();
+        PassengerQueue ticket = new PassengerQueue(store, PassengerLocation.TICKET_AREA);
+        ticket.offer(new Passenger("Copy Me", "Cubao", "Standard", "Cash", "50.00"));
+        ticket.offer(new Passenger("Typo", "Airport", "VIP", "Cash", "12,5o"));
+        ticket.offer(new Passenger("Odd Fare", "Airport", "Executive", "Cash", "50.00"));
+
+        Passenger copy = ticket.peek();
+        copy.setName("Changed");
+        check(store.get(copy.getPassengerId()).getName().equals("Copy Me"), "edit leaked without update()");
+        copy.setMoneyPaid("75.00");
+        check(store.update(copy), "update() missed a stored passenger");
+        Passenger stored = store.get(copy.getPassengerId());
+        checkEquals(copy.toDetailedString(), stored.toDetailedString(), "written-back passenger");
+
+        FareTable fares = FareTable.active();
+        long expectedFares = 2 * fares.getFare(fares.codeOf("Standard")) + fares.getFare(fares.codeOf("VIP"));
+        check(store.faresDueCentavos(PassengerLocation.TICKET_AREA, fares) == expectedFares, "fares due wrong");
+        check(store.cashOfferedCentavos(PassengerLocation.TICKET_AREA) == 12500, "cash offered wrong");
+        check("12,5o".equals(store.get(copy.getPassengerId() + 1).getMoneyPaid()), "raw amount text lost");
+        // Charged the default fare, but shown as entered
+        check("Executive".equals(store.get(copy.getPassengerId() + 2).getTicketType()), "unknown ticket type lost");
+    }
+
+    // Once the destination pool is full, new destinations keep their own text
+    // through the store and still tell passengers apart
+    static void destinationsPastThePoolLimitKeepTheirText() {
+        for (int i = StringPool.DESTINATIONS.size(); i < StringPool.DESTINATION_LIMIT; i++) {
+            StringPool.DESTINATIONS.codeOf("Filler " + i);
+        }
+        int poolSize = StringPool.DESTINATIONS.size();
+        PassengerStore store = new PassengerStore();
+        PassengerQueue ticket = new PassengerQueue(store, PassengerLocation.TICKET_AREA);
+        Passenger north = new Passenger("Same Name", "North Pier", "Standard", "Cash", "50.00");
+        Passenger south = new Passenger("Same Name", "South Pier", "Standard", "Cash", "50.00");
+        check(north.getDestinationCode() == StringPool.UNPOOLED, "full pool handed out a code");
+        check(StringPool.DESTINATIONS.size() == poolSize, "full pool grew");
+        ticket.offer(north);
+
+        checkEquals("North Pier", store.get(north.getPassengerId()).getDestination(), "unpooled destination");
+        check(store.hasDestinationOf(north.getPassengerId(), north), "same unpooled destination not matched");
+        check(!store.hasDestinationOf(north.getPassengerId(), south), "different unpooled destinations matched");
+        check(!store.hasDestinationOf(north.getPassengerId(),
+                new Passenger("Same Name", "Cubao", "Standard", "Cash", "50.00")), "pooled matched unpooled");
+    }
+
+    // Kiosk threads admit at once; each kiosk's passengers stay in its own
+    // order, and the journal replays to the same queue as the live one
+    static void concurrentAdmissionsKeepFifoOrder() throws Exception {
+        Path dir = tempDir("transitq-fifo");
+        TransitQManager manager = openManager(dir);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Passenger p : manager.getTicketAreaQueue()) {
+                manager.removePassenger(p.getPassengerId());
+            }
+            admitConcurrently(manager, round);
+
+            int[] lastSeen = new int[KIOSKS];
+            Arrays.fill(lastSeen, -1);
+            int position = 1;
+            for (Passenger p : manager.getTicketAreaQueue()) {
+                String[] parts = p.getName().split("-");
+                int kiosk = Integer.parseInt(parts[0].substring(1));
+                int seq = Integer.parseInt(parts[2]);
+                check(Integer.parseInt(parts[1]) == round, "passenger from another round: " + p.getName());
+                check(seq > lastSeen[kiosk], "kiosk " + kiosk + " out of order at " + p.getName());
+                check(manager.getQueuePosition(p.getPassengerId()) == position, "position wrong for " + p.getName());
+                lastSeen[kiosk] = seq;
+                position++;
+            }
+            check(position - 1 == KIOSKS * PER_KIOSK, "round " + round + " admitted " + (position - 1));
+        }
+
+        String expected = state(manager);
+        TransitQManager recovered = openManager(crashCopy(dir));
+        checkEquals(expected, state(recovered), "replay of concurrent admissions");
+    }
+
+    private static void admitConcurrently(TransitQManager manager, int round) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> kiosks = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (int k = 0; k < KIOSKS; k++) {
+            int kiosk = k;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < PER_KIOSK; i++) {
+                    String name = "K" + kiosk + "-" + round + "-" + i;
+                    String result = manager.addPassengerToTicketArea(new Passenger(name, "Cubao", "Standard",
+                            "Cash", "50.00"));
+                    if (!result.startsWith("ENQUEUE:")) {
+                        synchronized (failures) {
+                            failures.add(result);
+                        }
+                    }
+                }
+            }, "kiosk-" + k);
+            kiosks.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : kiosks) {
+            thread.join();
+        }
+        check(failures.isEmpty(), "admissions refused: " + failures);
+    }
+}
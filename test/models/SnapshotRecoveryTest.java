@@ -0,0 +1,129 @@
+package models;
+
+import static models.TestSupport.check;
+import static models.TestSupport.checkEquals;
+import static models.TestSupport.crashCopy;
+import static models.TestSupport.openManager;
+import static models.TestSupport.state;
+import static models.TestSupport.tempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Recovery from a snapshot plus the journal tail after it: the tail replays
+// on top of the newest snapshot, a damaged snapshot falls back to the older
+// one, and a directory with no usable snapshot and a truncated journal is
+// refused instead of being half-restored.
+public class SnapshotRecoveryTest {
+
+    public static void main(String[] args) throws IOException {
+        // Small segments so snapshots let the journal drop whole segments
+        System.setProperty(Journal.SEGMENT_BYTES_PROPERTY, "512");
+        try {
+            snapshotPlusTailRestoresLiveState();
+            damagedNewestSnapshotFallsBack();
+            unparseableNewestSnapshotFallsBack();
+            unrecoverableDirectoryIsRefused();
+        } finally {
+            System.clearProperty(Journal.SEGMENT_BYTES_PROPERTY);
+        }
+        System.out.println("SnapshotRecoveryTest: PASS");
+    }
+
+    // Newest snapshot plus the records after it give the live state
+    static void snapshotPlusTailRestoresLiveState() throws IOException {
+        Path dir = tempDir("transitq-snap");
+        TransitQManager live = openManager(dir);
+        runTwoSnapshotWorkload(live);
+        String expected = state(live);
+
+        Path crashed = crashCopy(dir);
+        check(snapshotFiles(crashed).size() == 2, "expected two snapshots, found " + snapshotFiles(crashed));
+        TransitQManager recovered = openManager(crashed);
+        checkEquals(expected, state(recovered), "state from snapshot and tail");
+    }
+
+    // Fails its checksum: the older snapshot and a longer tail are used
+    static void damagedNewestSnapshotFallsBack() throws IOException {
+        Path dir = tempDir("transitq-snap-damaged");
+        TransitQManager live = openManager(dir);
+        runTwoSnapshotWorkload(live);
+        String expected = state(live);
+
+        Path crashed = crashCopy(dir);
+        List<Path> snapshots = snapshotFiles(crashed);
+        corrupt(snapshots.get(snapshots.size() - 1));
+        TransitQManager recovered = openManager(crashed);
+        checkEquals(expected, state(recovered), "state from the older snapshot");
+    }
+
+    // Passes its checksum but cannot be decoded: nothing of it may be applied
+    static void unparseableNewestSnapshotFallsBack() throws IOException {
+        Path dir = tempDir("transitq-snap-cut");
+        TransitQManager live = openManager(dir);
+        runTwoSnapshotWorkload(live);
+        String expected = state(live);
+
+        Path crashed = crashCopy(dir);
+        SnapshotStore store = new SnapshotStore(crashed);
+        SnapshotStore.Loaded newest = store.loadNewest(Long.MAX_VALUE);
+        byte[] bytes = newest.getState();
+        store.write(newest.getLsn(), Arrays.copyOf(bytes, bytes.length / 2));
+        TransitQManager recovered = openManager(crashed);
+        checkEquals(expected, state(recovered), "state after skipping the cut snapshot");
+    }
+
+    // Both snapshots unusable and the journal no longer starts at LSN 1
+    static void unrecoverableDirectoryIsRefused() throws IOException {
+        Path dir = tempDir("transitq-snap-lost");
+        TransitQManager live = openManager(dir);
+        runTwoSnapshotWorkload(live);
+
+        Path crashed = crashCopy(dir);
+        check(new Journal(crashed, Journal.FsyncPolicy.NEVER, 20L, 512L).getFirstLsn() > 1,
+                "journal was not truncated behind the snapshots");
+        for (Path snapshot : snapshotFiles(crashed)) {
+            corrupt(snapshot);
+        }
+        try {
+            openManager(crashed);
+        } catch (IllegalStateException expected) {
+            return;
+        }
+        throw new AssertionError("manager started from a truncated journal with no usable snapshot");
+    }
+
+    // Work, snapshot, more work, snapshot, then a journal tail after both
+    private static void runTwoSnapshotWorkload(TransitQManager manager) {
+        manager.processUpTo(5);
+        manager.boardUpTo(3);
+        check(manager.snapshot(), "first snapshot failed");
+        manager.addPassengerToTicketArea(new Passenger("Between Snaps", "Cubao", "Standard", "Cash", "50.00"));
+        manager.processUpTo(4);
+        manager.boardUpTo(10);
+        manager.departBus();
+        check(manager.snapshot(), "second snapshot failed");
+        manager.addPassengerToTicketArea(new Passenger("In The Tail", "Airport", "VIP", "Card", "150.00"));
+        manager.processUpTo(2);
+        manager.boardUpTo(1);
+    }
+
+    // Flips a byte in the middle of the file
+    private static void corrupt(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+
+    private static List<Path> snapshotFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".snap")).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package models;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+// Shared helpers for the plain-Java tests under test/. The tests have no
+// framework dependency: each has a main() that throws on the first failed
+// check. Build and run from the repository root:
+//   javac -encoding UTF-8 -d out main/*.java models/*.java ui/*.java test/models/*.java
+//   java -cp out models.JournalRecoveryTest
+final class TestSupport {
+
+    private TestSupport() {
+    }
+
+    // Fresh empty directory for one test's journal
+    static Path tempDir(String prefix) throws IOException {
+        Path dir = Files.createTempDirectory(prefix);
+        dir.toFile().deleteOnExit();
+        return dir;
+    }
+
+    // Manager journaling to dir with every commit synced, no periodic
+    // snapshots and no served archive
+    static TransitQManager openManager(Path dir) {
+        System.setProperty(Journal.DIR_PROPERTY, dir.toString());
+        System.setProperty(Journal.FSYNC_PROPERTY, "ALWAYS");
+        System.setProperty(SnapshotStore.INTERVAL_PROPERTY, "0");
+        System.setProperty(ServedArchive.PATH_PROPERTY, "none");
+        return new TransitQManager();
+    }
+
+    // Copies a live journal directory (minus its lock file) as a crash would
+    // leave it: whatever was synced, and no final snapshot
+    static Path crashCopy(Path dir) throws IOException {
+        Path copy = tempDir("transitq-crash");
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().equals("journal.lock")) {
+                    Files.copy(file, copy.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        return copy;
+    }
+
+    // Queue contents in order, bus loads and served count
+    static String state(TransitQManager manager) {
+        StringBuilder state = new StringBuilder();
+        state.append("TICKET AREA\n");
+        for (Passenger p : manager.getTicketAreaQueue()) {
+            state.append(p.toDetailedString()).append('\n');
+        }
+        state.append("ASSIGN AREA\n");
+        for (Passenger p : manager.getAssignAreaQueue()) {
+            state.append(p.toDetailedString()).append('\n');
+        }
+        state.append(manager.getBusStatusReport());
+        state.append("SERVED: ").append(manager.getServedCount()).append('\n');
+        return state.toString();
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    static void checkEquals(Object expected, Object actual, String what) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError(what + " differs\n--- expected ---\n" + expected + "\n--- actual ---\n"
+                    + actual);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ui;
 
 import javax.swing.*;
+import models.FareTable;
+import models.Money;
 import models.Passenger;
 import models.TransitQManager;
 import java.awt.*;
@@ -10,11 +12,13 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import javax.imageio.ImageIO;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 public class LoginForm extends JFrame {
 
-    TransitQManager manager = new TransitQManager();
+    // Only used when the form runs without a main GUI; created on first use
+    private TransitQManager manager;
     private TransitQGUI mainGUI;
 
     // Validation patterns
@@ -24,6 +28,9 @@ public class LoginForm extends JFrame {
     private static final Pattern DESTINATION_PATTERN = Pattern.compile("^[A-Za-z\\s.,'-]+$");
     private static final Pattern CASH_PATTERN = Pattern.compile("^\\d+(\\.\\d{1,2})?$");
 
+    // How long a kiosk waits for a ticket area slot before reporting it full
+    private static final long KIOSK_SLOT_WAIT_SECONDS = 60;
+
     public LoginForm() {
         this(null);
     }
@@ -33,6 +40,14 @@ public class LoginForm extends JFrame {
         initializeUI();
     }
 
+    // Standalone manager for a form opened without the main GUI
+    private TransitQManager localManager() {
+        if (manager == null) {
+            manager = new TransitQManager();
+        }
+        return manager;
+    }
+
     private void initializeUI() {
         setTitle("Transit IQ Login");
         int frameWidth = 1250;
@@ -169,8 +184,9 @@ public class LoginForm extends JFrame {
         priceInfoButton.addActionListener(e -> showTicketPriceInfo());
         rightPanel.add(priceInfoButton);
 
-        String passengerTypes[] = { "Standard", "Discounted", "Vip" };
+        String passengerTypes[] = FareTable.active().getTicketTypeNames().toArray(new String[0]);
         JComboBox<String> passengerComboBox = new JComboBox<>(passengerTypes);
+        passengerComboBox.setSelectedItem("Standard");
         passengerComboBox.setBounds(55, 385, 350, 30);
         passengerComboBox.setFont(new Font("SansSerif", Font.BOLD, 16));
         rightPanel.add(passengerComboBox);
@@ -385,30 +401,8 @@ public class LoginForm extends JFrame {
                     return;
                 }
 
-                // FIX: Check TICKET AREA capacity (not assign area)
                 // Get the correct manager instance
-                TransitQManager currentManager = (mainGUI != null) ? mainGUI.getManager() : manager;
-
-                if (currentManager.getTicketAreaQueue().size() >= currentManager.getTicketAreaCapacity()) {
-                    // Enhanced message with queue information
-                    String queueInfo = String.format(
-                            "Ticket Area is Full! Currently at maximum capacity (%d/%d).\n\n" +
-                                    "Please wait for passengers to be processed and try again.\n\n" +
-                                    "Status: \n" +
-                                    "- Ticket Area: %d passengers waiting\n" +
-                                    "- Assign Area: %d passengers ready to board\n" +
-                                    "- Next available spot: When a passenger moves to assign area",
-                            currentManager.getTicketAreaQueue().size(),
-                            currentManager.getTicketAreaCapacity(),
-                            currentManager.getTicketAreaQueue().size(),
-                            currentManager.getAssignAreaQueue().size());
-
-                    JOptionPane.showMessageDialog(backgroundPanel,
-                            queueInfo,
-                            "Ticket Area Full",
-                            JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
+                TransitQManager currentManager = (mainGUI != null) ? mainGUI.getManager() : localManager();
 
                 // All validations passed - proceed with registration
                 try {
@@ -419,45 +413,55 @@ public class LoginForm extends JFrame {
                             selectedPassengerType, "Cash", passengerCash);
 
                     if (mainGUI != null) {
-                        // Add passenger to main GUI's ticket area
-                        String logMessage = mainGUI.getManager().addPassengerToTicketArea(p);
-                        mainGUI.logOperation(logMessage);
-                        mainGUI.updateVisuals();
-
-                        // Show success message with details
-                        String successMessage = String.format(
-                                "Registration Successful!\n\n" +
-                                        "Passenger: %s\n" +
-                                        "Age: %s\n" +
-                                        "Ticket Type: %s\n" +
-                                        "Destination: %s\n" +
-                                        "Payment: ₱%.2f\n\n" +
-                                        "You have been added to the ticket area.",
-                                passengerName, passengerAge, selectedPassengerType,
-                                passengerDestination, paymentAmount);
-
-                        JOptionPane.showMessageDialog(backgroundPanel,
-                                successMessage,
-                                "Registration Successful!",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        if (mainGUI != null) {
+                        Runnable completeRegistration = () -> {
+                            // Show success message with details
+                            String successMessage = String.format(
+                                    "Registration Successful!\n\n" +
+                                            "Passenger: %s\n" +
+                                            "Age: %s\n" +
+                                            "Ticket Type: %s\n" +
+                                            "Destination: %s\n" +
+                                            "Payment: ₱%.2f\n\n" +
+                                            "You have been added to the ticket area.",
+                                    passengerName, passengerAge, selectedPassengerType,
+                                    passengerDestination, paymentAmount);
+
+                            JOptionPane.showMessageDialog(backgroundPanel,
+                                    successMessage,
+                                    "Registration Successful!",
+                                    JOptionPane.INFORMATION_MESSAGE);
                             PassengerStatusFrame statusFrame = new PassengerStatusFrame(p, mainGUI.getManager());
                             statusFrame.setVisible(true);
-                        }
-                        // Clear form after successful submission
-                        nameTextField.setText("");
-                        ageField.setText("");
-                        contaField.setText("");
-                        destinationField.setText("");
-                        topayField.setText("");
-                        passengerComboBox.setSelectedIndex(0);
 
-                        // Optional: Play success sound or visual feedback
-                        nameTextField.requestFocus();
+                            // Clear form after successful submission
+                            nameTextField.setText("");
+                            ageField.setText("");
+                            contaField.setText("");
+                            destinationField.setText("");
+                            topayField.setText("");
+                            passengerComboBox.setSelectedIndex(0);
+
+                            // Optional: Play success sound or visual feedback
+                            nameTextField.requestFocus();
+                        };
+
+                        // Add passenger to main GUI's ticket area
+                        String logMessage = currentManager.addPassengerToTicketArea(p);
+                        if (!logMessage.startsWith("ALERT")) {
+                            mainGUI.logOperation(logMessage);
+                            completeRegistration.run();
+                        } else {
+                            // Ticket area is full: hold the kiosk until a slot frees up
+                            waitForTicketSlot(currentManager, p, sendButton, backgroundPanel, completeRegistration);
+                        }
 
                     } else {
                         // Fallback: use local manager
-                        manager.addPassengerToTicketArea(p);
+                        String logMessage = currentManager.addPassengerToTicketArea(p);
+                        if (logMessage.startsWith("ALERT")) {
+                            showTicketAreaFullMessage(backgroundPanel, currentManager);
+                            return;
+                        }
                         String successMessage = String.format(
                                 "Welcome Passenger %s!\n" +
                                         "Age: %s\n" +
@@ -496,6 +500,61 @@ public class LoginForm extends JFrame {
         setVisible(true);
     }
 
+    // Waits in the background for a ticket area slot, keeping the kiosk responsive
+    private void waitForTicketSlot(TransitQManager currentManager, Passenger p, JButton sendButton,
+            JPanel backgroundPanel, Runnable completeRegistration) {
+        String originalText = sendButton.getText();
+        sendButton.setEnabled(false);
+        sendButton.setText("Waiting...");
+
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return currentManager.addPassengerToTicketArea(p, KIOSK_SLOT_WAIT_SECONDS, TimeUnit.SECONDS);
+            }
+
+            @Override
+            protected void done() {
+                sendButton.setText(originalText);
+                sendButton.setEnabled(true);
+
+                String logMessage;
+                try {
+                    logMessage = get();
+                } catch (Exception ex) {
+                    logMessage = "ALERT: TICKET AREA FULL! " + ex.getMessage();
+                }
+
+                if (logMessage.startsWith("ALERT")) {
+                    showTicketAreaFullMessage(backgroundPanel, currentManager);
+                    return;
+                }
+                mainGUI.logOperation(logMessage);
+                completeRegistration.run();
+            }
+        }.execute();
+    }
+
+    // Shows the ticket area full warning with current queue information
+    private void showTicketAreaFullMessage(JPanel backgroundPanel, TransitQManager currentManager) {
+        String queueInfo = String.format(
+                "Ticket Area is Full! Currently at maximum capacity (%d/%d).\n\n" +
+                        "Please wait for passengers to be processed and try again.\n\n" +
+                        "Status: \n" +
+                        "- Ticket Area: %d passengers waiting\n" +
+                        "- Assign Area: %d passengers ready to board\n" +
+                        "- Next available spot: When a passenger moves to assign area",
+                currentManager.getTicketAreaSize(),
+                currentManager.getTicketAreaCapacity(),
+                currentManager.getTicketAreaSize(),
+                currentManager.getAssignAreaCurrentSize());
+
+        JOptionPane.showMessageDialog(backgroundPanel,
+                queueInfo,
+                "Ticket Area Full",
+                JOptionPane.WARNING_MESSAGE);
+    }
+
     private void addRealTimeValidation(JTextField nameField, JTextField ageField,
             JTextField contactField, JTextField destinationField,
             JTextField paymentField) {
@@ -651,19 +710,19 @@ public class LoginForm extends JFrame {
     }
 
     private void showTicketPriceInfo() {
-        String priceInfo = """
-                <html>
-                <h3>Ticket Price Information</h3>
-                <table border='1' cellpadding='5'>
-                    <tr><th>Ticket Type</th><th>Standard Price</th><th>Requirements</th></tr>
-                    <tr><td>VIP</td><td>₱100.00</td><td>Premium seat, Air Conditioning</td></tr>
-                    <tr><td>Standard</td><td>₱50.00</td><td>Regular fare</td></tr>
-                    <tr><td>Discounted</td><td>₱35.00</td><td>Students, Seniors, PWD</td></tr>
-                </table>
-                <br><b>Note:</b> Minimum payment required for verification.
-                </html>""";
-
-        JOptionPane.showMessageDialog(this, priceInfo, "Ticket Price Information",
+        FareTable fares = FareTable.active();
+        StringBuilder priceInfo = new StringBuilder();
+        priceInfo.append("<html><h3>Ticket Price Information</h3>");
+        priceInfo.append("<table border='1' cellpadding='5'>");
+        priceInfo.append("<tr><th>Ticket Type</th><th>Standard Price</th><th>Requirements</th></tr>");
+        for (int code = 0; code < fares.size(); code++) {
+            priceInfo.append("<tr><td>").append(fares.getName(code)).append("</td><td>₱");
+            Money.appendTo(priceInfo, fares.getFare(code)).append("</td><td>")
+                    .append(fares.getRequirements(code)).append("</td></tr>");
+        }
+        priceInfo.append("</table><br><b>Note:</b> Minimum payment required for verification.</html>");
+
+        JOptionPane.showMessageDialog(this, priceInfo.toString(), "Ticket Price Information",
                 JOptionPane.INFORMATION_MESSAGE);
     }
 }
\ No newline at end of file
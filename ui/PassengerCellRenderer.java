@@ -0,0 +1,101 @@
+package ui;
+
+import java.awt.*;
+import models.Passenger;
+
+// Paints one passenger cell (labels, silhouette and head highlight) straight
+// onto a queue view's Graphics. One renderer is shared by every cell, so no
+// Swing component or HTML label exists per passenger.
+public class PassengerCellRenderer {
+
+    private static final Color PAID_COLOR = new Color(0, 140, 0);
+    private static final Color UNPAID_COLOR = Color.RED;
+    private static final Color HIGHLIGHT_FILL = new Color(0, 255, 0, 100);
+
+    private final SpriteCache sprites;
+    private int fontSize = -1;
+    private Font nameFont;
+    private Font detailFont;
+
+    public PassengerCellRenderer(SpriteCache sprites) {
+        this.sprites = sprites;
+    }
+
+    // Paints a passenger into the cell at (x, y) of size w x h
+    public void paintCell(Graphics2D g2, Passenger p, int x, int y, int w, int h, int iconSize,
+            Color textColor, boolean highlighted) {
+        updateFonts(iconSize);
+
+        if (highlighted) {
+            g2.setColor(HIGHLIGHT_FILL);
+            g2.fillRoundRect(x, y, w, h, 10, 10);
+            g2.setColor(Color.GREEN);
+            g2.setStroke(new BasicStroke(3));
+            g2.drawRoundRect(x + 2, y + 2, w - 5, h - 5, 10, 10);
+        }
+
+        // Labels: destination, name, ticket type with amount and paid mark
+        g2.setFont(detailFont);
+        FontMetrics detail = g2.getFontMetrics();
+        g2.setFont(nameFont);
+        FontMetrics name = g2.getFontMetrics();
+
+        int textY = y + 2 + detail.getAscent();
+        g2.setColor(textColor);
+        g2.setFont(detailFont);
+        drawCentered(g2, detail, p.getDestination(), x, w, textY);
+
+        textY += name.getAscent() + 1;
+        g2.setFont(nameFont);
+        drawCentered(g2, name, p.getName(), x, w, textY);
+
+        textY += detail.getAscent() + 1;
+        g2.setFont(detailFont);
+        String ticketLine = p.getTicketType() + " • ₱" + p.getMoneyPaid() + " ";
+        String mark = p.isPaid() ? "✓" : "✗";
+        int lineWidth = detail.stringWidth(ticketLine) + detail.stringWidth(mark);
+        int lineX = x + Math.max(0, (w - lineWidth) / 2);
+        Shape oldClip = g2.getClip();
+        g2.clipRect(x, y, w, h);
+        g2.drawString(ticketLine, lineX, textY);
+        g2.setColor(p.isPaid() ? PAID_COLOR : UNPAID_COLOR);
+        g2.drawString(mark, lineX + detail.stringWidth(ticketLine), textY);
+
+        // Silhouette below the labels: a cached image, so this is a blit
+        Image silhouette = sprites.getSilhouette(p.getPassengerId(), iconSize);
+        int top = textY + detail.getDescent() + 2;
+        g2.drawImage(silhouette, x + (w - silhouette.getWidth(null)) / 2, top, null);
+        g2.setClip(oldClip);
+    }
+
+    // Tooltip text for a passenger cell
+    public String getToolTipText(Passenger p) {
+        return "Ticket Type: " + p.getTicketType() + " | Destination: " + p.getDestination() + " | Name: "
+                + p.getName() + " | Money Paid: ₱" + p.getMoneyPaid() + " | Paid: " + p.isPaid();
+    }
+
+    private void updateFonts(int iconSize) {
+        int size = Math.max(8, (int) (iconSize * 0.18));
+        if (size != fontSize) {
+            fontSize = size;
+            nameFont = new Font("Arial", Font.BOLD, size);
+            detailFont = new Font("Arial", Font.BOLD, Math.max(7, size - 2));
+        }
+    }
+
+    // Draws text centered in the cell, trimming it with "..." if it does not fit
+    private static void drawCentered(Graphics2D g2, FontMetrics fm, String text, int x, int w, int baseline) {
+        if (text == null) {
+            return;
+        }
+        String shown = text;
+        if (fm.stringWidth(shown) > w - 4) {
+            int end = shown.length();
+            while (end > 0 && fm.stringWidth(shown.substring(0, end) + "...") > w - 4) {
+                end--;
+            }
+            shown = shown.substring(0, end) + "...";
+        }
+        g2.drawString(shown, x + (w - fm.stringWidth(shown)) / 2, baseline);
+    }
+}
@@ -0,0 +1,199 @@
+package ui;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+import models.Passenger;
+
+// Virtualized queue view: passengers are laid out as a centered grid of
+// fixed-size cells and only the cells that intersect the clip are painted,
+// using one shared PassengerCellRenderer. Cost per repaint depends on the
+// visible area, not on queue length. Replaces the per-passenger icon
+// components, and the per-ID icon cache that kept them, which the queue
+// panels used before.
+public class PassengerQueueView extends JComponent implements Scrollable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final PassengerCellRenderer renderer;
+    private final int gap;
+    private List<Passenger> passengers = new ArrayList<>();
+    private Color textColor;
+    private int iconSize = 50;
+    private int cellWidth;
+    private int cellHeight;
+    private boolean headHighlighted;
+
+    public PassengerQueueView(Color textColor, int gap, SpriteCache sprites) {
+        this.renderer = new PassengerCellRenderer(sprites);
+        this.textColor = textColor;
+        this.gap = gap;
+        updateCellSize();
+        setToolTipText(""); // registers with the tooltip manager; text comes per cell
+    }
+
+    // Replaces the displayed queue with a snapshot in queue order
+    public void setPassengers(List<Passenger> snapshot) {
+        int oldRows = rowCount(passengers.size());
+        this.passengers = snapshot;
+        if (rowCount(snapshot.size()) != oldRows) {
+            revalidate();
+        }
+        repaint();
+    }
+
+    public int getPassengerCount() {
+        return passengers.size();
+    }
+
+    // Sets the silhouette size; cells grow with it
+    public void setIconSize(int size) {
+        if (size != iconSize && size > 0) {
+            iconSize = size;
+            updateCellSize();
+            revalidate();
+            repaint();
+        }
+    }
+
+    // Turns the head-of-queue highlight on or off
+    public void setHeadHighlighted(boolean highlighted) {
+        if (highlighted != headHighlighted) {
+            headHighlighted = highlighted;
+            if (!passengers.isEmpty()) {
+                repaint(getCellBounds(0));
+            }
+        }
+    }
+
+    // Bounds of the cell at this queue index
+    public Rectangle getCellBounds(int index) {
+        int columns = columnCount();
+        int row = index / columns;
+        int column = index % columns;
+        int x = gridLeft(columns) + column * (cellWidth + gap);
+        int y = gap + row * (cellHeight + gap);
+        return new Rectangle(x, y, cellWidth, cellHeight);
+    }
+
+    // Queue index of the cell under a point, or -1
+    public int indexAt(Point point) {
+        int columns = columnCount();
+        int column = (point.x - gridLeft(columns)) / (cellWidth + gap);
+        int row = (point.y - gap) / (cellHeight + gap);
+        if (point.x < gridLeft(columns) || point.y < gap || column >= columns) {
+            return -1;
+        }
+        int index = row * columns + column;
+        if (index >= passengers.size() || !getCellBounds(index).contains(point)) {
+            return -1;
+        }
+        return index;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int index = indexAt(event.getPoint());
+        return index < 0 ? null : renderer.getToolTipText(passengers.get(index));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        List<Passenger> snapshot = passengers;
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            int columns = columnCount();
+            int rowHeight = cellHeight + gap;
+            int firstRow = Math.max(0, (clip.y - gap) / rowHeight);
+            int lastRow = Math.min(rowCount(snapshot.size()) - 1, (clip.y + clip.height - gap) / rowHeight);
+
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = 0; column < columns; column++) {
+                    int index = row * columns + column;
+                    if (index >= snapshot.size()) {
+                        break;
+                    }
+                    Rectangle cell = getCellBounds(index);
+                    if (cell.intersects(clip)) {
+                        renderer.paintCell(g2, snapshot.get(index), cell.x, cell.y, cell.width, cell.height,
+                                iconSize, textColor, index == 0 && headHighlighted);
+                    }
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int rows = rowCount(passengers.size());
+        return new Dimension(cellWidth + 2 * gap, gap + rows * (cellHeight + gap));
+    }
+
+    // --- Scrollable: width follows the viewport, height grows with the queue ---
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(1, (cellHeight + gap) / 4);
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getHeight() > getPreferredSize().height;
+    }
+
+    private void updateCellSize() {
+        cellWidth = (int) (iconSize * 1.6);
+        cellHeight = (int) (iconSize * 1.5) + iconSize / 3;
+    }
+
+    private int columnCount() {
+        int width = getWidth() > 0 ? getWidth() : cellWidth + 2 * gap;
+        return Math.max(1, (width - gap) / (cellWidth + gap));
+    }
+
+    private int rowCount(int count) {
+        int columns = columnCount();
+        return (count + columns - 1) / columns;
+    }
+
+    // Left edge of the grid, centering full rows like FlowLayout.CENTER
+    private int gridLeft(int columns) {
+        int gridWidth = columns * (cellWidth + gap) - gap;
+        return Math.max(gap, (getWidth() - gridWidth) / 2);
+    }
+}
@@ -2,7 +2,10 @@ package ui;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicReference;
 import models.Passenger;
+import models.PassengerStatus;
+import models.TransitQListener;
 import models.TransitQManager;
 
 public class PassengerStatusFrame extends JFrame {
@@ -12,7 +15,8 @@ public class PassengerStatusFrame extends JFrame {
     private JLabel statusLabel;
     private JLabel positionLabel;
     private JLabel queueLabel;
-    private Timer refreshTimer;
+    private TransitQListener statusListener;
+    private final AtomicReference<PassengerStatus> pendingStatus = new AtomicReference<>();
 
     public PassengerStatusFrame(Passenger passenger, TransitQManager manager) {
         this.passenger = passenger;
@@ -105,81 +109,70 @@ public class PassengerStatusFrame extends JFrame {
         return label;
     }
 
+    // The manager pushes status changes; an idle window does no work
     private void startStatusUpdates() {
-        refreshTimer = new Timer(2000, e -> updatePassengerStatus()); // Update every 2 seconds
-        refreshTimer.start();
+        statusListener = manager.subscribeToStatus(passenger.getPassengerId(), this::scheduleRefresh);
     }
 
-    private void updatePassengerStatus() {
-        // Check where the passenger is
-        boolean inTicketArea = false;
-        boolean inAssignArea = false;
-        int ticketPosition = -1;
-        int assignPosition = -1;
-
-        // Check ticket area
-        int index = 0;
-        for (Passenger p : manager.getTicketAreaQueue()) {
-            if (p.getPassengerId() == passenger.getPassengerId()) {
-                inTicketArea = true;
-                ticketPosition = index + 1;
-                break;
-            }
-            index++;
+    // Hands the newest status to the EDT, collapsing a burst of pushes into one update
+    private void scheduleRefresh(PassengerStatus status) {
+        if (pendingStatus.getAndSet(status) == null) {
+            SwingUtilities.invokeLater(() -> updatePassengerStatus(pendingStatus.getAndSet(null)));
         }
+    }
 
-        // Check assign area
-        index = 0;
-        for (Passenger p : manager.getAssignAreaQueue()) {
-            if (p.getPassengerId() == passenger.getPassengerId()) {
-                inAssignArea = true;
-                assignPosition = index + 1;
-                break;
-            }
-            index++;
+    private void stopStatusUpdates() {
+        if (statusListener != null) {
+            manager.removeListener(statusListener);
+            statusListener = null;
+        }
+    }
+
+    private void updatePassengerStatus(PassengerStatus status) {
+        if (status == null) {
+            return;
         }
 
         // Update status label
-        if (inTicketArea) {
-            statusLabel.setText("Current Location: TICKET AREA");
-            positionLabel
-                    .setText("Position in queue: #" + ticketPosition + " of " + manager.getTicketAreaQueue().size());
-            statusLabel.setForeground(new Color(255, 153, 0)); // Orange for ticket area
-        } else if (inAssignArea) {
-            statusLabel.setText("🚌 Current Location: ASSIGN BUS AREA");
-            positionLabel.setText(
-                    "Position in boarding queue: #" + assignPosition + " of " + manager.getAssignAreaQueue().size());
-            statusLabel.setForeground(new Color(0, 153, 0)); // Green for assign area
-        } else {
-            // Check if already boarded/bus departed
-            boolean isServed = false;
-            for (Passenger p : manager.getServedLog()) {
-                if (p.getPassengerId() == passenger.getPassengerId()) {
-                    isServed = true;
-                    break;
-                }
-            }
-
-            if (isServed) {
+        switch (status.getStage()) {
+            case TICKET_AREA:
+                statusLabel.setText("Current Location: TICKET AREA");
+                positionLabel.setText("Position in queue: #" + status.getPosition() + " of "
+                        + status.getQueueSize() + formatWait(status));
+                statusLabel.setForeground(new Color(255, 153, 0)); // Orange for ticket area
+                break;
+            case ASSIGN_AREA:
+                statusLabel.setText("🚌 Current Location: ASSIGN BUS AREA");
+                positionLabel.setText("Position in boarding queue: #" + status.getPosition() + " of "
+                        + status.getQueueSize() + formatWait(status));
+                statusLabel.setForeground(new Color(0, 153, 0)); // Green for assign area
+                break;
+            case BOARDED:
                 statusLabel.setText("Status: BOARDED & DEPARTED");
                 positionLabel.setText("Your bus has departed. Thank you for traveling with us!");
                 statusLabel.setForeground(new Color(0, 100, 0)); // Dark green for boarded
-
-                // Stop timer once boarded
-                refreshTimer.stop();
-            } else {
+                statusListener = null; // the manager drops final subscriptions itself
+                break;
+            default:
                 statusLabel.setText("Status: NOT FOUND IN SYSTEM");
                 positionLabel.setText("Please check with station attendant");
                 statusLabel.setForeground(Color.RED);
-            }
+                statusListener = null;
+                break;
         }
     }
 
+    private String formatWait(PassengerStatus status) {
+        long seconds = status.getEstimatedWaitSeconds();
+        if (seconds < 0) {
+            return "";
+        }
+        return seconds < 60 ? " (~" + seconds + "s)" : " (~" + (seconds + 59) / 60 + " min)";
+    }
+
     @Override
     public void dispose() {
-        if (refreshTimer != null) {
-            refreshTimer.stop();
-        }
+        stopStatusUpdates();
         super.dispose();
     }
 }
\ No newline at end of file
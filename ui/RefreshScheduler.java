@@ -0,0 +1,63 @@
+package ui;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+// Coalesces refresh requests into at most one UI update per frame interval.
+// Callers flag the regions that changed from any thread; the first flag after
+// an idle period arms a one-shot Swing timer, and when it fires the refresher
+// receives every region flagged in the meantime. A burst of model events
+// therefore costs one refresh per frame, not one per event.
+public class RefreshScheduler {
+
+    // Regions of the main window
+    public static final int BUSES = 1;
+    public static final int TICKET_AREA = 2;
+    public static final int ASSIGN_AREA = 4;
+    public static final int LOG = 8;
+    public static final int ALL = BUSES | TICKET_AREA | ASSIGN_AREA | LOG;
+
+    // ~30 fps
+    public static final int DEFAULT_FRAME_MILLIS = 33;
+
+    private final AtomicInteger dirtyRegions = new AtomicInteger();
+    private final IntConsumer refresher;
+    private final Timer frameTimer;
+
+    public RefreshScheduler(int frameMillis, IntConsumer refresher) {
+        this.refresher = refresher;
+        this.frameTimer = new Timer(frameMillis, e -> flush());
+        this.frameTimer.setRepeats(false);
+    }
+
+    // Flags regions for the next frame; safe to call from any thread
+    public void request(int regions) {
+        if (regions == 0) {
+            return;
+        }
+        if (dirtyRegions.getAndAccumulate(regions, (a, b) -> a | b) == 0) {
+            if (SwingUtilities.isEventDispatchThread()) {
+                frameTimer.start();
+            } else {
+                SwingUtilities.invokeLater(frameTimer::start);
+            }
+        }
+    }
+
+    // Refreshes the flagged regions now instead of waiting for the frame
+    public void flush() {
+        frameTimer.stop();
+        int regions = dirtyRegions.getAndSet(0);
+        if (regions != 0) {
+            refresher.accept(regions);
+        }
+    }
+
+    // Cancels the pending frame; requests after this are still accepted
+    public void stop() {
+        frameTimer.stop();
+        dirtyRegions.set(0);
+    }
+}
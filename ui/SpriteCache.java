@@ -0,0 +1,147 @@
+package ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+// Pre-rendered passenger silhouettes and bus bodies. Each shape is drawn once
+// with antialiasing into a BufferedImage keyed by (color bucket or state,
+// size); painting is then a single drawImage. Sizes are part of the key, so
+// clear() on resize only frees images that will not be asked for again.
+// Used from the event dispatch thread only.
+public class SpriteCache {
+
+    // Passenger colors are hues in 256 buckets derived from the passenger ID
+    public static final int COLOR_BUCKETS = 256;
+
+    // Bus sprite states
+    public static final int BUS_WAITING = 0;
+    public static final int BUS_FULL = 1;
+    public static final int BUS_ACTIVE = 2;
+    public static final int BUS_ACTIVE_FULL = BUS_ACTIVE | BUS_FULL;
+
+    private static final Color[] BASE_COLORS = new Color[COLOR_BUCKETS];
+    private static final Color[] HEAD_COLORS = new Color[COLOR_BUCKETS];
+    private static final Color[] BODY_COLORS = new Color[COLOR_BUCKETS];
+
+    static {
+        for (int i = 0; i < COLOR_BUCKETS; i++) {
+            BASE_COLORS[i] = Color.getHSBColor(i / (float) COLOR_BUCKETS, 0.9f, 0.7f);
+            HEAD_COLORS[i] = BASE_COLORS[i].brighter();
+            BODY_COLORS[i] = BASE_COLORS[i].darker();
+        }
+    }
+
+    private final Color busColor;
+    private final Color busFullColor;
+    private final Color activeOutline;
+    private final Map<Long, BufferedImage> silhouettes = new HashMap<>();
+    private final Map<Long, BufferedImage> buses = new HashMap<>();
+
+    public SpriteCache(Color busColor, Color busFullColor, Color activeOutline) {
+        this.busColor = busColor;
+        this.busFullColor = busFullColor;
+        this.activeOutline = activeOutline;
+    }
+
+    // Color bucket of a passenger ID (same hue the GUI has always used)
+    public static int colorBucket(int passengerId) {
+        return Math.floorMod(passengerId * 133, COLOR_BUCKETS);
+    }
+
+    // Shared Color for a passenger ID; no allocation per call
+    public static Color colorForId(int passengerId) {
+        return BASE_COLORS[colorBucket(passengerId)];
+    }
+
+    // Silhouette (head over rounded body) for a passenger of this icon size
+    public BufferedImage getSilhouette(int passengerId, int iconSize) {
+        int bucket = colorBucket(passengerId);
+        long key = ((long) iconSize << 8) | bucket;
+        BufferedImage image = silhouettes.get(key);
+        if (image == null) {
+            image = renderSilhouette(bucket, iconSize);
+            silhouettes.put(key, image);
+        }
+        return image;
+    }
+
+    // Bus body (fill, outline, active highlight and lights) of this size and state
+    public BufferedImage getBus(int state, int width, int height) {
+        long key = ((long) width << 34) | ((long) height << 2) | state;
+        BufferedImage image = buses.get(key);
+        if (image == null) {
+            image = renderBus(state, width, height);
+            buses.put(key, image);
+        }
+        return image;
+    }
+
+    // Drops every cached image; call when the window is resized
+    public void clear() {
+        silhouettes.clear();
+        buses.clear();
+    }
+
+    private BufferedImage renderSilhouette(int bucket, int iconSize) {
+        int headSize = Math.max(1, iconSize / 3);
+        int bodyWidth = Math.max(1, (int) (iconSize * 0.8));
+        int bodyHeight = Math.max(1, (int) (iconSize * 1.5 * 0.7) - headSize);
+        int bodyY = headSize - (int) (bodyHeight * 0.1);
+
+        BufferedImage image = createImage(bodyWidth, bodyY + bodyHeight);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(HEAD_COLORS[bucket]);
+            g2.fillOval((bodyWidth - headSize) / 2, 0, headSize, headSize);
+            g2.setColor(BODY_COLORS[bucket]);
+            g2.fillRoundRect(0, bodyY, bodyWidth, bodyHeight, 10, 10);
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    private BufferedImage renderBus(int state, int w, int h) {
+        BufferedImage image = createImage(Math.max(1, w), Math.max(1, h));
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int arc = 40;
+
+            g2.setColor((state & BUS_FULL) != 0 ? busFullColor : busColor);
+            g2.fillRoundRect(0, 0, w - 1, h - 1, arc, arc);
+
+            g2.setColor(Color.BLACK);
+            g2.setStroke(new BasicStroke(2));
+            g2.drawRoundRect(0, 0, w - 1, h - 1, arc, arc);
+
+            if ((state & BUS_ACTIVE) != 0) {
+                g2.setColor(activeOutline);
+                g2.setStroke(new BasicStroke(4));
+                g2.drawRoundRect(0, 0, w - 1, h - 1, arc, arc);
+            }
+
+            g2.setColor(Color.WHITE);
+            g2.fillOval(w - (int) (w * 0.1), (int) (h * 0.05), (int) (w * 0.08), (int) (h * 0.08));
+            g2.fillOval(w - (int) (w * 0.1), h - (int) (h * 0.13), (int) (w * 0.08), (int) (h * 0.08));
+            g2.fillOval((int) (w * 0.03), (int) (h * 0.05), (int) (w * 0.08), (int) (h * 0.08));
+            g2.fillOval((int) (w * 0.03), h - (int) (h * 0.13), (int) (w * 0.08), (int) (h * 0.08));
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    // Translucent image in the screen's native format when a screen exists
+    private static BufferedImage createImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -1,8 +1,15 @@
 package ui;
 
 import javax.swing.*;
+import models.BoardingResult;
 import models.Bus;
+import models.FareTable;
+import models.Money;
 import models.Passenger;
+import models.PassengerLocation;
+import models.PaymentVerification;
+import models.TicketingResult;
+import models.TransitQListener;
 import models.TransitQManager;
 import java.awt.*;
 import java.awt.event.*;
@@ -10,7 +17,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 
 public class TransitQGUI extends JFrame {
     // ====================================================================
@@ -18,7 +24,8 @@ public class TransitQGUI extends JFrame {
     // ====================================================================
     // TransitQGUI() - Main constructor that initializes the GUI with look and feel,
     // sets up panels, and starts the application.
-    // startBlinkTimer() - Starts a timer for blinking queue indicators.
+    // startBlinkTimer() - Creates the blink timer for queue indicators and the
+    // window listeners that pause it.
     // initializeLookAndFeel() - Sets up the GUI look and feel
     // calculateDimensions() - Calculates dimensions for GUI components
     // setupMainWindow() - Configures the main window properties
@@ -31,12 +38,15 @@ public class TransitQGUI extends JFrame {
     // getManager() - Returns the TransitQManager instance.
     // logOperation(String message) - Adds timestamped messages to the operation log
     // area.
+    // requestRefresh() - Schedules a redraw of all regions on the next frame.
 
     // ====================================================================
     // GUI SETUP AND LAYOUT METHODS
     // ====================================================================
     // updateQueueIndicators() - Updates blinking indicators in ticket and assign
     // areas.
+    // updateBlinkTimer() - Starts the blink timer while a queue is non-empty and
+    // the window is visible; stops it otherwise.
     // updateLayoutForContentPanelSize(JPanel contentPanel) - Dynamically adjusts
     // layout based on window size changes.
     // updateBusPositions(JPanel innerRightPanel) - Updates positions of bus panels
@@ -82,19 +92,27 @@ public class TransitQGUI extends JFrame {
     // visualization panel.
     // createTicketAreaContainer(int width, int height) - Creates the ticket area
     // container panel.
+    // createQueueScrollPane(PassengerQueueView view) - Wraps a queue view in a
+    // transparent vertical scroller.
 
     // ====================================================================
     // VISUALIZATION METHODS
     // ====================================================================
     // updateVisuals() - Updates all visual components including buses, queues, and
     // buttons.
+    // subscribeToManager() - Listens for manager events and flags the affected
+    // regions with the refresh scheduler.
+    // refreshRegions(int regions) - Redraws the regions flagged during one frame.
+    // flushPendingLog() - Appends queued log lines to the log area.
     // updateBusButtonStates() - Updates bus button states
     // updateBusVisuals() - Updates bus visual representations
+    // busState(Bus bus, String activeBusName) - Sprite state (full/active) of a
+    // bus panel
     // updateAssignAreaVisuals() - Updates assign area visuals
     // updateTicketAreaVisuals() - Updates ticket area visuals
-    // createPassengerIcon(...) - Creates a visual icon representation of a
-    // passenger.
-    // generateColorFromId(int id) - Generates a unique color based on passenger ID.
+    // currentIconSize() - Returns the passenger icon size for the window width.
+    // Passenger cells are painted by PassengerQueueView with a shared
+    // PassengerCellRenderer; only visible cells are drawn.
 
     // ====================================================================
     // ACTION METHODS (USER INTERACTIONS)
@@ -102,7 +120,10 @@ public class TransitQGUI extends JFrame {
     // showAddPassengerForm() - Shows a dialog form to add a new passenger to ticket
     // area.
     // passPassengerAction() - Passes passenger from ticket area to assign area.
+    // processAllAction() - Processes the ticket area into the assign area in one
+    // batch.
     // addPassengerToBusAction() - Adds passenger from assign area to bus.
+    // fillBusAction() - Boards the assign area into the current bus in one batch.
     // departBusAction() - Handles bus departure (only when bus is full).
     // showEnhancedBusAssignment() - Shows dialog for assigning different buses to
     // active queue.
@@ -135,8 +156,10 @@ public class TransitQGUI extends JFrame {
 
     private TransitQManager manager = new TransitQManager();
     private JTextArea logArea;
-    private JPanel assignAreaVisPanel;
-    private JPanel ticketAreaVisPanel;
+    private PassengerQueueView assignAreaView;
+    private PassengerQueueView ticketAreaView;
+    private JLabel assignAreaTitleLabel;
+    private JLabel ticketAreaTitleLabel;
     private JPanel ticketAreaContainer;
     private JButton departBusButton;
     private Map<String, JPanel> busPanels;
@@ -144,7 +167,13 @@ public class TransitQGUI extends JFrame {
     private javax.swing.Timer blinkTimer;
     private boolean blinkState = true;
 
+    // Model changes and log lines are applied at most once per frame
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler(
+            RefreshScheduler.DEFAULT_FRAME_MILLIS, this::refreshRegions);
+    private final StringBuilder pendingLog = new StringBuilder();
+
     private JButton addToBusButton;
+    private JButton fillBusButton;
     private JButton logoutButton;
     private int addBtnOffsetX = 0;
     private int addBtnOffsetY = 0;
@@ -166,6 +195,10 @@ public class TransitQGUI extends JFrame {
     private final Color ASSIGN_AREA_ID_TEXT = Color.LIGHT_GRAY;
     private final Color PULSE_COLOR = new Color(0, 255, 255);
 
+    // Pre-rendered bus bodies and passenger silhouettes, dropped on resize
+    private final SpriteCache spriteCache = new SpriteCache(YELLOW_BUS, BUS_FULL_COLOR, PULSE_COLOR);
+    private static final String BUS_STATE_KEY = "transitq.busState";
+
     private int CURRENT_CONTENT_WIDTH;
     private int CURRENT_CONTENT_HEIGHT;
     private int LOG_PANEL_PREFERRED_HEIGHT;
@@ -175,11 +208,18 @@ public class TransitQGUI extends JFrame {
         return manager;
     }
 
-    // Logs operation messages with timestamp
+    // Logs operation messages with timestamp; lines are appended on the next frame
     public void logOperation(String message) {
         String timestamp = java.time.LocalTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss"));
-        logArea.append("\n[" + timestamp + "] " + message);
-        logArea.setCaretPosition(logArea.getDocument().getLength());
+        synchronized (pendingLog) {
+            pendingLog.append("\n[").append(timestamp).append("] ").append(message);
+        }
+        refreshScheduler.request(RefreshScheduler.LOG);
+    }
+
+    // Asks for every region to be redrawn on the next frame; safe from any thread
+    public void requestRefresh() {
+        refreshScheduler.request(RefreshScheduler.ALL);
     }
 
     // ====================================================================
@@ -192,6 +232,7 @@ public class TransitQGUI extends JFrame {
         createMainLayout();
         setupDynamicLayoutListener();
         startBlinkTimer();
+        subscribeToManager();
         setVisible(true);
         updateVisuals();
     }
@@ -242,6 +283,7 @@ public class TransitQGUI extends JFrame {
 
                         CURRENT_CONTENT_WIDTH = contentPanel.getWidth();
                         CURRENT_CONTENT_HEIGHT = contentPanel.getHeight();
+                        spriteCache.clear(); // old sizes will not be painted again
                         updateLayoutForContentPanelSize(contentPanel);
                     }
                 }
@@ -336,6 +378,7 @@ public class TransitQGUI extends JFrame {
     private void createActionButtons(JPanel rightJPanel) {
         rightJPanel.add(createStyledButton("ADD PASSENGER", 0, 0, 1, 1, e -> showAddPassengerForm()));
         rightJPanel.add(createStyledButton("PASS PASSENGER", 0, 0, 1, 1, e -> passPassengerAction()));
+        rightJPanel.add(createStyledButton("PROCESS ALL", 0, 0, 1, 1, e -> processAllAction()));
 
         addToBusButton = createStyledButton("ADD PASSENGER TO THE BUS", 0, 0, 1, 1, e -> addPassengerToBusAction());
         rightJPanel.add(addToBusButton);
@@ -343,6 +386,10 @@ public class TransitQGUI extends JFrame {
         addBtnAbsoluteX = 610;
         addBtnAbsoluteY = 560;
         addToBusButton.setBounds(addBtnAbsoluteX, addBtnAbsoluteY, 360, 54);
+
+        fillBusButton = createStyledButton("FILL BUS", 0, 0, 1, 1, e -> fillBusAction());
+        rightJPanel.add(fillBusButton);
+        fillBusButton.setBounds(addBtnAbsoluteX, addBtnAbsoluteY + 64, 360, 54);
     }
 
     private void createVisualElements(JPanel rightJPanel) {
@@ -355,20 +402,69 @@ public class TransitQGUI extends JFrame {
     // ====================================================================
     // TIMER AND INDICATOR METHODS
     // ====================================================================
+    // The blink only runs while a queue has a head to highlight and the
+    // window can be seen; updateBlinkTimer() starts and stops it
     private void startBlinkTimer() {
         blinkTimer = new javax.swing.Timer(500, e -> {
             blinkState = !blinkState;
             updateQueueIndicators();
         });
-        blinkTimer.start();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                updateBlinkTimer();
+            }
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                updateBlinkTimer();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                updateBlinkTimer();
+            }
+        });
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                updateBlinkTimer();
+            }
+
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                updateBlinkTimer();
+            }
+        });
     }
 
+    // Runs the blink timer only when there is something visible to blink
+    private void updateBlinkTimer() {
+        if (blinkTimer == null) {
+            return;
+        }
+        boolean hasHead = (ticketAreaView != null && ticketAreaView.getPassengerCount() > 0)
+                || (assignAreaView != null && assignAreaView.getPassengerCount() > 0);
+        boolean visible = isShowing() && (getExtendedState() & Frame.ICONIFIED) == 0;
+        if (hasHead && visible) {
+            if (!blinkTimer.isRunning()) {
+                blinkTimer.start();
+            }
+        } else if (blinkTimer.isRunning()) {
+            blinkTimer.stop();
+            // Leave the head highlighted so the next queue starts in a steady state
+            blinkState = true;
+            updateQueueIndicators();
+        }
+    }
+
+    // Repaints only the head cells (see PassengerQueueView.setHeadHighlighted)
     private void updateQueueIndicators() {
-        if (ticketAreaVisPanel != null) {
-            ticketAreaVisPanel.repaint();
+        if (ticketAreaView != null) {
+            ticketAreaView.setHeadHighlighted(blinkState);
         }
-        if (assignAreaVisPanel != null) {
-            assignAreaVisPanel.repaint();
+        if (assignAreaView != null) {
+            assignAreaView.setHeadHighlighted(blinkState);
         }
     }
 
@@ -497,9 +593,16 @@ public class TransitQGUI extends JFrame {
                 } else if ("PASS PASSENGER".equals(btn.getText())) {
                     btn.setFont(new Font("Arial", Font.BOLD, 16));
                     if (ticketAreaContainer != null) {
-                        btn.setBounds(ticketAreaContainer.getX() + 85,
+                        btn.setBounds(ticketAreaContainer.getX() + 5,
                                 ticketAreaContainer.getY() + ticketAreaContainer.getHeight() + 86,
-                                280, 48);
+                                215, 48);
+                    }
+                } else if ("PROCESS ALL".equals(btn.getText())) {
+                    btn.setFont(new Font("Arial", Font.BOLD, 16));
+                    if (ticketAreaContainer != null) {
+                        btn.setBounds(ticketAreaContainer.getX() + 230,
+                                ticketAreaContainer.getY() + ticketAreaContainer.getHeight() + 86,
+                                215, 48);
                     }
                 }
             }
@@ -533,6 +636,11 @@ public class TransitQGUI extends JFrame {
                     addBtnAbsoluteY = bigY;
                 }
             }
+
+            if (fillBusButton != null) {
+                fillBusButton.setFont(new Font("Arial", Font.BOLD, 16));
+                fillBusButton.setBounds(addToBusButton.getX(), addToBusButton.getY() + bigH + 10, bigW, bigH);
+            }
         }
     }
 
@@ -661,41 +769,16 @@ public class TransitQGUI extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                int w = getWidth();
-                int h = getHeight();
-                int arc = 40;
-
-                Color busColor = YELLOW_BUS;
-                Bus bus = manager.getBuses().get(name);
-                if (bus != null && bus.isFull()) {
-                    busColor = BUS_FULL_COLOR;
-                }
-
-                g2.setColor(busColor);
-                g2.fillRoundRect(0, 0, w - 1, h - 1, arc, arc);
-
-                g2.setColor(Color.BLACK);
-                g2.setStroke(new BasicStroke(2));
-                g2.drawRoundRect(0, 0, w - 1, h - 1, arc, arc);
-
-                if (name.equals(manager.getCurrentlyAssignedBusName())) {
-                    g2.setColor(PULSE_COLOR);
-                    g2.setStroke(new BasicStroke(4));
-                    g2.drawRoundRect(0, 0, w - 1, h - 1, arc, arc);
-                }
-
-                g2.setColor(Color.WHITE);
-                g2.fillOval(w - (int) (w * 0.1), (int) (h * 0.05), (int) (w * 0.08), (int) (h * 0.08));
-                g2.fillOval(w - (int) (w * 0.1), h - (int) (h * 0.13), (int) (w * 0.08), (int) (h * 0.08));
-                g2.fillOval((int) (w * 0.03), (int) (h * 0.05), (int) (w * 0.08), (int) (h * 0.08));
-                g2.fillOval((int) (w * 0.03), h - (int) (h * 0.13), (int) (w * 0.08), (int) (h * 0.08));
+                // State is pushed in by updateBusVisuals; painting never queries the manager
+                Object state = getClientProperty(BUS_STATE_KEY);
+                int busState = state instanceof Integer ? (Integer) state : SpriteCache.BUS_WAITING;
+                g.drawImage(spriteCache.getBus(busState, getWidth(), getHeight()), 0, 0, null);
             }
         };
         panel.setOpaque(false);
         panel.setLayout(new BorderLayout());
+        panel.putClientProperty(BUS_STATE_KEY, busState(manager.getBuses().get(name),
+                manager.getCurrentlyAssignedBusName()));
 
         String displayName = name.toUpperCase();
         JLabel label = new JLabel("<html><center>" + displayName + "<br>(0/10)</center></html>", SwingConstants.CENTER);
@@ -788,13 +871,15 @@ public class TransitQGUI extends JFrame {
         titleLabel.setBorder(BorderFactory.createEmptyBorder(6, 0, 8, 0));
         container.add(titleLabel, BorderLayout.NORTH);
 
-        assignAreaVisPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
-        assignAreaVisPanel.setBackground(new Color(40, 60, 95));
+        assignAreaTitleLabel = titleLabel;
+        assignAreaView = new PassengerQueueView(ASSIGN_AREA_ID_TEXT, 10, spriteCache);
+        assignAreaView.setOpaque(true);
+        assignAreaView.setBackground(new Color(40, 60, 95));
 
         JPanel borderPanel = new JPanel(new BorderLayout());
         borderPanel.setOpaque(false);
         borderPanel.setBorder(BorderFactory.createLineBorder(Color.WHITE, 3));
-        borderPanel.add(assignAreaVisPanel, BorderLayout.CENTER);
+        borderPanel.add(createQueueScrollPane(assignAreaView), BorderLayout.CENTER);
 
         container.add(borderPanel, BorderLayout.CENTER);
 
@@ -827,9 +912,10 @@ public class TransitQGUI extends JFrame {
         titleLabel.setFont(new Font("Arial", Font.BOLD, 22));
         titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
 
-        ticketAreaVisPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 14, 14));
-        ticketAreaVisPanel.setOpaque(false);
-        panel.add(ticketAreaVisPanel, BorderLayout.CENTER);
+        ticketAreaTitleLabel = titleLabel;
+        ticketAreaView = new PassengerQueueView(TICKET_AREA_TEXT_ORANGE.darker(), 14, spriteCache);
+        ticketAreaView.setOpaque(false);
+        panel.add(createQueueScrollPane(ticketAreaView), BorderLayout.CENTER);
 
         JPanel container = new JPanel(new BorderLayout());
         container.setOpaque(false);
@@ -839,6 +925,17 @@ public class TransitQGUI extends JFrame {
         return container;
     }
 
+    // Transparent vertical scroller so long queues stay within the area
+    private JScrollPane createQueueScrollPane(PassengerQueueView view) {
+        JScrollPane scrollPane = new JScrollPane(view,
+                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.setOpaque(false);
+        scrollPane.getViewport().setOpaque(false);
+        return scrollPane;
+    }
+
     // ====================================================================
     // VISUALIZATION METHODS
     // ====================================================================
@@ -851,6 +948,88 @@ public class TransitQGUI extends JFrame {
         repaint();
     }
 
+    // Refreshes only the regions touched by manager events, coalesced per frame
+    private void subscribeToManager() {
+        manager.addListener(new TransitQListener() {
+            @Override
+            public void onPassengerEnqueued(Passenger passenger) {
+                refreshScheduler.request(RefreshScheduler.TICKET_AREA);
+            }
+
+            @Override
+            public void onPassengerVerified(Passenger passenger, PaymentVerification verification) {
+                refreshScheduler.request(RefreshScheduler.TICKET_AREA | RefreshScheduler.ASSIGN_AREA);
+            }
+
+            @Override
+            public void onPassengerRejected(Passenger passenger, PaymentVerification verification) {
+                refreshScheduler.request(RefreshScheduler.TICKET_AREA);
+            }
+
+            @Override
+            public void onPassengersBoarded(String busName, List<Passenger> boarded, int busLoad,
+                    int busCapacity) {
+                refreshScheduler.request(RefreshScheduler.ASSIGN_AREA | RefreshScheduler.BUSES);
+            }
+
+            @Override
+            public void onPassengerRemoved(Passenger passenger, PassengerLocation fromLocation) {
+                refreshScheduler.request(fromLocation == PassengerLocation.TICKET_AREA
+                        ? RefreshScheduler.TICKET_AREA
+                        : RefreshScheduler.ASSIGN_AREA);
+            }
+
+            @Override
+            public void onPassengerUpdated(Passenger passenger) {
+                refreshScheduler.request(RefreshScheduler.TICKET_AREA | RefreshScheduler.ASSIGN_AREA);
+            }
+
+            @Override
+            public void onBusDeparted(String busName, int passengerCount) {
+                refreshScheduler.request(RefreshScheduler.BUSES);
+            }
+
+            @Override
+            public void onBusAssigned(String busName) {
+                refreshScheduler.request(RefreshScheduler.BUSES);
+            }
+        });
+    }
+
+    // Applies one frame's worth of changes to the flagged regions
+    private void refreshRegions(int regions) {
+        if ((regions & RefreshScheduler.LOG) != 0 && logArea != null) {
+            flushPendingLog();
+        }
+        if (busPanels == null) {
+            return;
+        }
+        if ((regions & RefreshScheduler.BUSES) != 0) {
+            updateBusButtonStates();
+            updateBusVisuals();
+        }
+        if ((regions & RefreshScheduler.ASSIGN_AREA) != 0) {
+            updateAssignAreaVisuals();
+        }
+        if ((regions & RefreshScheduler.TICKET_AREA) != 0) {
+            updateTicketAreaVisuals();
+        }
+    }
+
+    // Appends the log lines queued since the last frame in one document edit
+    private void flushPendingLog() {
+        String lines;
+        synchronized (pendingLog) {
+            if (pendingLog.length() == 0) {
+                return;
+            }
+            lines = pendingLog.toString();
+            pendingLog.setLength(0);
+        }
+        logArea.append(lines);
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+    }
+
     private void updateBusButtonStates() {
         if (departBusButton != null) {
             departBusButton.setEnabled(manager.canDepartBus());
@@ -858,15 +1037,18 @@ public class TransitQGUI extends JFrame {
     }
 
     private void updateBusVisuals() {
+        Map<String, Bus> buses = manager.getBuses();
+        String activeBusName = manager.getCurrentlyAssignedBusName();
         for (Map.Entry<String, JPanel> entry : busPanels.entrySet()) {
             String busName = entry.getKey();
             JPanel busPanel = entry.getValue();
-            Bus bus = manager.getBuses().get(busName);
+            Bus bus = buses.get(busName);
 
             if (bus != null) {
                 JLabel label = (JLabel) busPanel.getComponent(0);
                 label.setText("<html><center>" + bus.getName() + "<br>(" + bus.getCurrentLoad() + "/"
                         + bus.getCapacity() + ")</center></html>");
+                busPanel.putClientProperty(BUS_STATE_KEY, busState(bus, activeBusName));
                 busPanel.repaint();
             }
         }
@@ -878,125 +1060,36 @@ public class TransitQGUI extends JFrame {
     }
 
     private void updateAssignAreaVisuals() {
-        assignAreaVisPanel.removeAll();
-        Queue<Passenger> assignQueue = manager.getAssignAreaQueue();
-        JPanel assignContainer = (JPanel) assignAreaVisPanel.getParent().getParent();
-        JLabel assignTitleLabel = (JLabel) assignContainer.getComponent(0);
-        assignTitleLabel.setText(
+        List<Passenger> assignQueue = manager.getAssignAreaPassengers();
+        assignAreaTitleLabel.setText(
                 "ASSIGN PASSENGER AREA (" + assignQueue.size() + "/" + manager.getAssignAreaDisplayCapacity() + ")");
-
-        int assignIndex = 0;
-        for (Passenger p : assignQueue) {
-            boolean isFirst = (assignIndex == 0);
-            assignAreaVisPanel.add(createPassengerIcon(p.getName(), ASSIGN_AREA_ID_TEXT,
-                    p.getPassengerId(), p.getMoneyPaid(), p.getDestination(), p.isPaid(), isFirst, "ASSIGN",
-                    p.getTicketType()));
-            assignIndex++;
-        }
+        assignAreaView.setIconSize(currentIconSize());
+        assignAreaView.setPassengers(assignQueue);
+        updateBlinkTimer();
     }
 
     private void updateTicketAreaVisuals() {
-        ticketAreaVisPanel.removeAll();
-        Queue<Passenger> ticketQueue = manager.getTicketAreaQueue();
-        JPanel ticketContainer = (JPanel) ticketAreaVisPanel.getParent().getParent();
-        JLabel ticketTitleLabel = (JLabel) ticketContainer.getComponent(0);
-        ticketTitleLabel.setText("TICKET AREA (" + ticketQueue.size() + "/" + manager.getTicketAreaCapacity() + ")");
-
-        int ticketIndex = 0;
-        for (Passenger p : ticketQueue) {
-            boolean isFirst = (ticketIndex == 0);
-            ticketAreaVisPanel.add(createPassengerIcon(p.getName(), TICKET_AREA_TEXT_ORANGE.darker(),
-                    p.getPassengerId(), p.getMoneyPaid(), p.getDestination(), p.isPaid(), isFirst, "TICKET",
-                    p.getTicketType()));
-            ticketIndex++;
+        List<Passenger> ticketQueue = manager.getTicketAreaPassengers();
+        ticketAreaTitleLabel.setText("TICKET AREA (" + ticketQueue.size() + "/" + manager.getTicketAreaCapacity() + ")");
+        ticketAreaView.setIconSize(currentIconSize());
+        ticketAreaView.setPassengers(ticketQueue);
+        updateBlinkTimer();
+    }
+
+    // Sprite state of a bus panel: full and/or the active bus
+    private int busState(Bus bus, String activeBusName) {
+        int state = SpriteCache.BUS_WAITING;
+        if (bus != null && bus.isFull()) {
+            state |= SpriteCache.BUS_FULL;
         }
+        if (bus != null && bus.getName().equals(activeBusName)) {
+            state |= SpriteCache.BUS_ACTIVE;
+        }
+        return state;
     }
 
-    private JPanel createPassengerIcon(String nameText, Color textColor, int passengerId,
-            String moneyPaid, String destination, boolean isPaid,
-            boolean isFirstInQueue, String areaType, String ticketType) {
-        Color silhouetteColor = generateColorFromId(passengerId);
-        int size = (CURRENT_CONTENT_WIDTH > 0) ? (int) (CURRENT_CONTENT_WIDTH * 0.035) : 50;
-        int iconWidth = size;
-        int iconHeight = (int) (size * 1.5);
-        int headSize = iconWidth / 3;
-        int bodyWidth = (int) (iconWidth * 0.8);
-        int bodyHeight = (int) (iconHeight * 0.7) - headSize;
-
-        JPanel iconPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-
-                if (isFirstInQueue && blinkState) {
-                    Graphics2D g2 = (Graphics2D) g;
-                    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                    g2.setColor(new Color(0, 255, 0, 100));
-                    g2.fillRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
-
-                    g2.setColor(Color.GREEN);
-                    g2.setFont(new Font("Arial", Font.BOLD, 10));
-                    String firstText = "";
-                    FontMetrics fm = g2.getFontMetrics();
-                    int textWidth = fm.stringWidth(firstText);
-                    g2.drawString(firstText, (getWidth() - textWidth) / 2, 12);
-
-                    g2.setColor(Color.GREEN);
-                    g2.setStroke(new BasicStroke(3));
-                    g2.drawRoundRect(2, 2, getWidth() - 5, getHeight() - 5, 10, 10);
-                }
-            }
-        };
-        iconPanel.setLayout(new BorderLayout());
-        iconPanel.setOpaque(false);
-        iconPanel.setPreferredSize(new Dimension(iconWidth, iconHeight));
-
-        String paymentStatus = isPaid ? "<font color='green'>✓</font>" : "<font color='red'>✗</font>";
-        JLabel idNameLabel = new JLabel(
-                "<html><center><font size='-2'>" + destination + "</font><br>" +
-                        nameText + "<br>" +
-                        "<font size='-2'>" + ticketType + " • ₱" + moneyPaid + " " + paymentStatus
-                        + "</font></center></html>",
-                SwingConstants.CENTER);
-        idNameLabel.setForeground(textColor);
-        idNameLabel.setFont(new Font("Arial", Font.BOLD, (int) (size * 0.18)));
-        idNameLabel.setOpaque(false);
-        idNameLabel.setToolTipText(
-                "Ticket Type: " + ticketType + " | Destination: " + destination + " | Name: " + nameText
-                        + " | Money Paid: ₱" + moneyPaid + " | Paid: "
-                        + isPaid);
-        idNameLabel.setBorder(BorderFactory.createEmptyBorder(2, 0, 0, 0));
-        iconPanel.add(idNameLabel, BorderLayout.NORTH);
-
-        JPanel silhouettePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                int w = getWidth() + 3;
-                int h = getHeight();
-                g2.setColor(silhouetteColor.brighter());
-                g2.fillOval((w - headSize) / 2, 0, headSize, headSize);
-                g2.setColor(silhouetteColor.darker());
-                int bodyY = headSize - (int) (bodyHeight * 0.1);
-                g2.fillRoundRect((w - bodyWidth) / 2, bodyY, bodyWidth, bodyHeight, 10, 10);
-            }
-        };
-        silhouettePanel.setOpaque(false);
-        silhouettePanel.setPreferredSize(new Dimension(iconWidth, iconHeight - (int) (size * 0.5)));
-        iconPanel.add(silhouettePanel, BorderLayout.CENTER);
-
-        return iconPanel;
-    }
-
-    private Color generateColorFromId(int id) {
-        int hash = id * 133;
-        float h = (hash % 256) / 256.0f;
-        float s = 0.9f;
-        float b = 0.7f;
-        return Color.getHSBColor(h, s, b);
+    private int currentIconSize() {
+        return (CURRENT_CONTENT_WIDTH > 0) ? (int) (CURRENT_CONTENT_WIDTH * 0.035) : 50;
     }
 
     // ====================================================================
@@ -1033,7 +1126,6 @@ public class TransitQGUI extends JFrame {
             }
 
             updateAllBusPanels();
-            updateVisuals();
 
             JOptionPane.showMessageDialog(this,
                     departureMessage + "\n" +
@@ -1054,8 +1146,9 @@ public class TransitQGUI extends JFrame {
         JTextField nameField = new JTextField(15);
         JTextField destField = new JTextField(15);
         JTextField moneyField = new JTextField(15);
-        String[] ticketTypes = { "Standard", "Discounted", "VIP" };
+        String[] ticketTypes = manager.getFareTable().getTicketTypeNames().toArray(new String[0]);
         JComboBox<String> ticketTypeCombo = new JComboBox<>(ticketTypes);
+        ticketTypeCombo.setSelectedItem("Standard");
 
         formPanel.add(new JLabel("Passenger Name:"));
         formPanel.add(nameField);
@@ -1084,12 +1177,7 @@ public class TransitQGUI extends JFrame {
             }
 
             try {
-                double money = Double.parseDouble(moneyField.getText().trim());
-                if (money < 0) {
-                    JOptionPane.showMessageDialog(this, "Money paid cannot be negative.", "Input Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+                Money.parseCentavos(moneyField.getText().trim());
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid amount for money paid.", "Input Error",
                         JOptionPane.ERROR_MESSAGE);
@@ -1100,20 +1188,27 @@ public class TransitQGUI extends JFrame {
                     (String) ticketTypeCombo.getSelectedItem(), "Cash", moneyField.getText().trim());
             String logMessage = manager.addPassengerToTicketArea(p);
             logOperation(logMessage);
-            updateVisuals();
         }
     }
 
     private void passPassengerAction() {
         String logMessage = manager.passPassengerToAssignArea();
         logOperation(logMessage);
-        updateVisuals();
+    }
+
+    private void processAllAction() {
+        TicketingResult result = manager.processUntilAssignFull();
+        logOperation(result.getMessage());
     }
 
     private void addPassengerToBusAction() {
         String logMessage = manager.addPassengerToBus();
         logOperation(logMessage);
-        updateVisuals();
+    }
+
+    private void fillBusAction() {
+        BoardingResult result = manager.boardUntilFull();
+        logOperation(result.getMessage());
     }
 
     // ====================================================================
@@ -1258,7 +1353,7 @@ public class TransitQGUI extends JFrame {
 
                         // Update visuals
                         updateAllBusPanels();
-                        updateVisuals();
+                        refreshScheduler.request(RefreshScheduler.BUSES);
 
                         JOptionPane.showMessageDialog(this,
                                 "Successfully created new bus: " + busName + "\n" +
@@ -1453,7 +1548,6 @@ public class TransitQGUI extends JFrame {
 
         String logMessage = manager.removePassenger(p.getPassengerId());
         logOperation(logMessage);
-        updateVisuals();
     }
 
     private void updatePassengerAction() {
@@ -1488,7 +1582,7 @@ public class TransitQGUI extends JFrame {
         JTextField nameField = new JTextField(originalName, 15);
         JTextField destField = new JTextField(originalDest, 15);
         JTextField moneyField = new JTextField(originalMoneyPaid, 15); // Add money field
-        String[] ticketTypes = { "Standard", "Discounted", "VIP" };
+        String[] ticketTypes = manager.getFareTable().getTicketTypeNames().toArray(new String[0]);
         JComboBox<String> ticketTypeCombo = new JComboBox<>(ticketTypes);
         ticketTypeCombo.setSelectedItem(originalTicketType);
 
@@ -1564,15 +1658,7 @@ public class TransitQGUI extends JFrame {
             }
 
             try {
-                double money = Double.parseDouble(newMoneyPaid);
-                if (money < 0) {
-                    JOptionPane.showMessageDialog(this,
-                            "Money paid cannot be negative.",
-                            "Update Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    logOperation("UPDATE ERROR: Invalid money amount for passenger ID " + p.getPassengerId());
-                    return;
-                }
+                Money.parseCentavos(newMoneyPaid);
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
                         "Please enter a valid amount for money paid.",
@@ -1585,13 +1671,11 @@ public class TransitQGUI extends JFrame {
             // Update the passenger in the manager - preserving payment status
             String updateResult = manager.updatePassenger(p.getPassengerId(), newName, newDest, newTicketType);
 
-            // Also update the money field if it changed
+            // Also update the money field if it changed, re-verifying the new amount
+            boolean paymentVerified = p.isPaid();
             if (!newMoneyPaid.equals(originalMoneyPaid)) {
-                p.setMoneyPaid(newMoneyPaid);
-
-                // Re-verify payment with new amount
-                boolean paymentVerified = verifyPaymentForUpdate(p, newMoneyPaid, newTicketType);
-                p.setPaid(paymentVerified);
+                paymentVerified = verifyPaymentForUpdate(p, newMoneyPaid, newTicketType);
+                manager.updatePassengerPayment(p.getPassengerId(), newMoneyPaid, paymentVerified);
             }
 
             Map<String, String> updates = new HashMap<>();
@@ -1620,11 +1704,9 @@ public class TransitQGUI extends JFrame {
                                 (updates.containsKey("Destination") ? "• " + updates.get("Destination") + "\n" : "") +
                                 (updates.containsKey("Ticket Type") ? "• " + updates.get("Ticket Type") + "\n" : "") +
                                 (updates.containsKey("Money Paid") ? "• " + updates.get("Money Paid") + "\n" : "") +
-                                "\nPayment Status: " + (p.isPaid() ? "VERIFIED ✓" : "UNVERIFIED ✗"),
+                                "\nPayment Status: " + (paymentVerified ? "VERIFIED ✓" : "UNVERIFIED ✗"),
                         "Update Successful",
                         JOptionPane.INFORMATION_MESSAGE);
-
-                updateVisuals();
             } else {
                 logOperation("UPDATE: Passenger ID " + p.getPassengerId() + " update cancelled (no changes made).");
             }
@@ -1632,28 +1714,7 @@ public class TransitQGUI extends JFrame {
     }
 
     private boolean verifyPaymentForUpdate(Passenger passenger, String moneyPaid, String ticketType) {
-        try {
-            double amountPaid = Double.parseDouble(moneyPaid);
-            double requiredAmount = 0.0;
-
-            switch (ticketType.toLowerCase()) {
-                case "vip":
-                    requiredAmount = 100.00;
-                    break;
-                case "discounted":
-                    requiredAmount = 35.00;
-                    break;
-                case "standard":
-                default:
-                    requiredAmount = 50.00;
-                    break;
-            }
-
-            return amountPaid >= requiredAmount;
-
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return manager.getFareTable().isPaymentSufficient(Money.parseOrInvalid(moneyPaid), ticketType);
     }
 
     // ====================================================================
@@ -1673,6 +1734,9 @@ public class TransitQGUI extends JFrame {
     }
 
     private void clearLogsAction() {
+        synchronized (pendingLog) {
+            pendingLog.setLength(0);
+        }
         logArea.setText("");
         logOperation("LOGS: Operation logs cleared by user.");
     }
@@ -1697,26 +1761,21 @@ public class TransitQGUI extends JFrame {
     }
 
     private void showTicketPrices() {
-        String priceInfo = """
-                ===============================
-                TRANSITQ TICKET PRICE LIST
-                ===============================
-
-                🎫 VIP TICKET
-                • Price: ₱100.00
-                • Premium service
-
-                🎫 STANDARD TICKET
-                • Price: ₱50.00
-                • Regular service
-                • Standard seating
-
-                🎫 DISCOUNTED TICKET
-                • Price: ₱35.00
-                • For: Students, Seniors (60+), PWD
-                • Valid ID required
-                • Standard seating
-
+        FareTable fares = manager.getFareTable();
+        StringBuilder priceInfo = new StringBuilder();
+        priceInfo.append("===============================\n");
+        priceInfo.append("TRANSITQ TICKET PRICE LIST\n");
+        priceInfo.append("===============================\n\n");
+        for (int code = 0; code < fares.size(); code++) {
+            priceInfo.append("🎫 ").append(fares.getName(code).toUpperCase()).append(" TICKET\n");
+            priceInfo.append("• Price: ₱");
+            Money.appendTo(priceInfo, fares.getFare(code)).append("\n");
+            if (!fares.getRequirements(code).isEmpty()) {
+                priceInfo.append("• ").append(fares.getRequirements(code)).append("\n");
+            }
+            priceInfo.append("\n");
+        }
+        priceInfo.append("""
                 ===============================
                 PAYMENT VERIFICATION RULES:
                 • Payment must match or exceed ticket price
@@ -1724,9 +1783,9 @@ public class TransitQGUI extends JFrame {
                 • Cash payments only
                 • Minimum payment required for boarding
                 ===============================
-                """;
+                """);
 
-        JTextArea textArea = new JTextArea(priceInfo);
+        JTextArea textArea = new JTextArea(priceInfo.toString());
         textArea.setEditable(false);
         textArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
         textArea.setBackground(new Color(240, 248, 255));
@@ -1767,6 +1826,9 @@ public class TransitQGUI extends JFrame {
         if (blinkTimer != null) {
             blinkTimer.stop();
         }
+        refreshScheduler.stop();
+        // Releases the journal so the next manager (e.g. after logout) can replay it
+        manager.close();
         super.dispose();
     }
 }
\ No newline at end of file